@@ -0,0 +1,58 @@
+package com.zacklack.zacklack.bench;
+
+import java.util.Formatter;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Hex encoding of digests: the {@link Formatter} loop previously used by
+ * {@code ResourcePackService} against {@link HexFormat}, which
+ * {@code HashingService} uses now.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HexEncodingBenchmark {
+
+    /** SHA-1 and SHA-256 digest lengths. */
+    @Param({ "20", "32" })
+    public int digestLength;
+
+    private byte[] digest;
+
+    @Setup
+    public void setUp() {
+        digest = new byte[digestLength];
+        new Random(digestLength).nextBytes(digest);
+    }
+
+    @Benchmark
+    public String formatter() {
+        try (Formatter fmt = new Formatter()) {
+            for (byte b : digest) {
+                fmt.format("%02x", b);
+            }
+            return fmt.toString();
+        }
+    }
+
+    @Benchmark
+    public String hexFormat() {
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,35 @@
+package com.zacklack.zacklack.bench;
+
+import com.zacklack.zacklack.util.PackFormatUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PackFormatUtil#getVersionForFormat} for a known, the newest and an
+ * unmapped pack_format.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PackFormatBenchmark {
+
+    @Param({ "15", "64", "9999" })
+    public int format;
+
+    @Benchmark
+    public String getVersionForFormat() {
+        return PackFormatUtil.getVersionForFormat(format);
+    }
+}
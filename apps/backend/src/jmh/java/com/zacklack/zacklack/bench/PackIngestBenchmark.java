@@ -0,0 +1,114 @@
+package com.zacklack.zacklack.bench;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import com.zacklack.zacklack.service.HashingService;
+import com.zacklack.zacklack.service.PackChangeTracker;
+import com.zacklack.zacklack.service.PackMetrics;
+import com.zacklack.zacklack.service.ResourcePackService;
+import com.zacklack.zacklack.util.PackInspector;
+import com.zacklack.zacklack.util.PackInspector.PackInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The per-upload work of {@link ResourcePackService} on packs of different
+ * sizes and entry counts: hashing the stored file (SHA-1 alone and SHA-1
+ * with SHA-256), validating it and reading pack.mcmeta.
+ * <p>
+ * {@link #scanEntries} is the sequential {@link ZipInputStream} scan that
+ * validation used before {@link PackInspector} switched to the central
+ * directory; it is kept as a baseline for the entry-count dependence.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PackIngestBenchmark {
+
+    @Param({ "10", "500", "5000" })
+    public int entries;
+
+    @Param({ "1048576", "16777216", "67108864" })
+    public long totalBytes;
+
+    private Path pack;
+
+    private ResourcePackService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        pack = SyntheticPacks.create(entries, totalBytes, 15);
+        // Only repository-free methods are benchmarked
+        service = new ResourcePackService(
+            null,
+            new PackChangeTracker(),
+            null,
+            new HashingService(1),
+            new PackMetrics(new SimpleMeterRegistry())
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pack);
+    }
+
+    @Benchmark
+    public String computeHash() throws IOException {
+        return service.computeHash(pack);
+    }
+
+    @Benchmark
+    public HashingService.Digests computeDigests() throws IOException {
+        return service.computeDigests(pack);
+    }
+
+    @Benchmark
+    public PackInfo validate() throws IOException {
+        return PackInspector.inspect(pack);
+    }
+
+    @Benchmark
+    public ResourcePack populatePackMetadata() {
+        ResourcePack rp = new ResourcePack();
+        service.populatePackMetadata(rp, pack);
+        return rp;
+    }
+
+    @Benchmark
+    public boolean scanEntries() throws IOException {
+        try (
+            InputStream in = Files.newInputStream(pack);
+            ZipInputStream zis = new ZipInputStream(in)
+        ) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                if (PackInspector.PACK_META.equals(entry.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.zacklack.zacklack.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes throwaway resource packs for the benchmarks.
+ * <p>
+ * Entry contents are random so the archive does not compress away, and
+ * pack.mcmeta is written last, which is the worst case for anything that
+ * scans entries in order.
+ */
+final class SyntheticPacks {
+
+    private SyntheticPacks() {}
+
+    /**
+     * Create a pack in a new temp file.
+     *
+     * @param entries    number of texture entries
+     * @param totalBytes approximate uncompressed size of all entries
+     * @param packFormat pack_format to put in pack.mcmeta
+     * @return path of the zip; the caller deletes it
+     */
+    static Path create(int entries, long totalBytes, int packFormat)
+        throws IOException {
+        Path zip = Files.createTempFile("bench-pack-", ".zip");
+        int entrySize = (int) Math.max(1, totalBytes / Math.max(1, entries));
+        byte[] content = new byte[entrySize];
+        Random random = new Random(entries * 31L + totalBytes);
+        try (
+            OutputStream out = Files.newOutputStream(zip);
+            ZipOutputStream zos = new ZipOutputStream(out)
+        ) {
+            for (int i = 0; i < entries; i++) {
+                random.nextBytes(content);
+                zos.putNextEntry(
+                    new ZipEntry(
+                        "assets/minecraft/textures/block/bench_" + i + ".png"
+                    )
+                );
+                zos.write(content);
+                zos.closeEntry();
+            }
+            zos.putNextEntry(new ZipEntry("pack.mcmeta"));
+            zos.write(
+                (
+                    "{\"pack\":{\"pack_format\":" +
+                    packFormat +
+                    ",\"description\":\"benchmark\"}}"
+                ).getBytes(StandardCharsets.UTF_8)
+            );
+            zos.closeEntry();
+        }
+        return zip;
+    }
+}
@@ -5,11 +5,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import jakarta.annotation.PostConstruct;
 
 @SpringBootApplication
 @EnableAsync // ← enable @Async methods
+@EnableScheduling
 public class RphBackendApplication {
 
     private static final Logger logger = LoggerFactory.getLogger(RphBackendApplication.class);
@@ -0,0 +1,84 @@
+package com.zacklack.zacklack.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated executor for resource pack conversions.
+ * A fixed number of workers drains a bounded queue; once the queue is full,
+ * new submissions are rejected instead of piling up in memory.
+ * <p>
+ * With {@code conversion.executor.virtual-threads} (defaults to
+ * {@code spring.threads.virtual.enabled}) the workers are virtual threads.
+ * The pool size and queue still bound how many conversions run and wait;
+ * only the threads blocked on file I/O, the database or a converter worker
+ * process stop holding a platform thread.
+ */
+@Configuration
+public class ConversionExecutorConfig {
+
+    /**
+     * Executor that runs ConverterService conversions.
+     *
+     * @param workers        number of concurrent conversions
+     * @param queueCapacity  number of conversions allowed to wait
+     * @param virtualThreads run conversions on virtual threads
+     * @return configured executor
+     */
+    @Bean(name = "conversionExecutor")
+    public ThreadPoolTaskExecutor conversionExecutor(
+        @Value("${conversion.executor.workers:2}") int workers,
+        @Value("${conversion.executor.queue-capacity:20}") int queueCapacity,
+        @Value(
+            "${conversion.executor.virtual-threads:${spring.threads.virtual.enabled:false}}"
+        ) boolean virtualThreads
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("conversion-");
+        if (virtualThreads) {
+            executor.setThreadFactory(
+                Thread.ofVirtual().name("conversion-", 1).factory()
+            );
+        }
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Gauges for the conversion executor: conversions waiting in the queue
+     * and conversions currently running.
+     *
+     * @param executor the conversion executor
+     * @return binder registered by Actuator
+     */
+    @Bean
+    public MeterBinder conversionExecutorMetrics(
+        @Qualifier("conversionExecutor") ThreadPoolTaskExecutor executor
+    ) {
+        return registry -> {
+            Gauge.builder(
+                "rph.conversion.queue.depth",
+                executor,
+                ThreadPoolTaskExecutor::getQueueSize
+            )
+                .description("Conversions waiting for a worker")
+                .register(registry);
+            Gauge.builder(
+                "rph.conversion.in-progress",
+                executor,
+                ThreadPoolTaskExecutor::getActiveCount
+            )
+                .description("Conversions currently running")
+                .register(registry);
+        };
+    }
+}
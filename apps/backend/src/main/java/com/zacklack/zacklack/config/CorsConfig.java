@@ -36,8 +36,26 @@ public class CorsConfig {
                         "https://*.workers.dev",
                         "http://*.workers.dev"
                     )
-                    .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                    .allowedMethods(
+                        "GET",
+                        "HEAD",
+                        "POST",
+                        "PUT",
+                        "PATCH",
+                        "DELETE",
+                        "OPTIONS"
+                    )
                     .allowedHeaders("*")
+                    // Pagination headers of GET /api/resourcepacks and the
+                    // resumable upload protocol under /api/resourcepacks/uploads
+                    .exposedHeaders(
+                        "X-Next-Cursor",
+                        "Link",
+                        "Location",
+                        "Tus-Resumable",
+                        "Upload-Offset",
+                        "Upload-Length"
+                    )
                     .allowCredentials(true);
             }
         };
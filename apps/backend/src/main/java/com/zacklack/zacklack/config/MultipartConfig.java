@@ -0,0 +1,37 @@
+package com.zacklack.zacklack.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Multipart handling.
+ * Bodies are parsed only when a handler asks for its parts, so
+ * {@code POST /api/resourcepacks} reads its {@code file} part itself and
+ * moves the container's spooled copy into storage instead of copying it.
+ */
+@Configuration
+public class MultipartConfig {
+
+    /**
+     * Replaces Spring Boot's default resolver with a lazily resolving one;
+     * size limits from {@code spring.servlet.multipart.*} still apply.
+     *
+     * @param strictServletCompliance see Spring Boot's property of that name
+     * @return multipart resolver
+     */
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public StandardServletMultipartResolver multipartResolver(
+        @Value(
+            "${spring.servlet.multipart.strict-servlet-compliance:false}"
+        ) boolean strictServletCompliance
+    ) {
+        StandardServletMultipartResolver resolver =
+            new StandardServletMultipartResolver();
+        resolver.setResolveLazily(true);
+        resolver.setStrictServletCompliance(strictServletCompliance);
+        return resolver;
+    }
+}
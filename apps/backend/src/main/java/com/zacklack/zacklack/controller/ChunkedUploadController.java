@@ -0,0 +1,215 @@
+package com.zacklack.zacklack.controller;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.apache.catalina.connector.ClientAbortException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.zacklack.zacklack.exception.UploadNotFoundException;
+import com.zacklack.zacklack.exception.UploadOffsetException;
+import com.zacklack.zacklack.service.ChunkedUploadService;
+import com.zacklack.zacklack.service.ChunkedUploadService.UploadStatus;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resumable pack uploads following the core tus 1.0 protocol.
+ * <ol>
+ * <li>{@code POST /api/resourcepacks/uploads} with {@code Upload-Length} and
+ * optionally {@code Upload-Metadata: filename <base64>} creates an upload and
+ * returns its URL in {@code Location}.</li>
+ * <li>{@code PATCH} on that URL with {@code Upload-Offset} and a
+ * {@code application/offset+octet-stream} body appends a chunk.</li>
+ * <li>{@code HEAD} returns the current {@code Upload-Offset}, which is where
+ * the client resumes after a dropped connection.</li>
+ * </ol>
+ * Unlike plain tus, the chunk that completes the upload is answered with
+ * 201 and the stored pack, since validation happens at that point.
+ */
+@RestController
+@RequestMapping("/api/resourcepacks/uploads")
+public class ChunkedUploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ChunkedUploadController.class
+    );
+
+    static final String TUS_RESUMABLE = "Tus-Resumable";
+    static final String TUS_VERSION = "1.0.0";
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+    static final String UPLOAD_LENGTH = "Upload-Length";
+
+    private final ChunkedUploadService uploads;
+
+    public ChunkedUploadController(ChunkedUploadService uploads) {
+        this.uploads = uploads;
+    }
+
+    /**
+     * Create an upload.
+     *
+     * @param length   total size in bytes
+     * @param metadata tus metadata; the {@code filename} key names the pack
+     * @param request  servlet request (for the Location URL)
+     * @return 201 with Location, 400 on bad headers or 413 if too large
+     */
+    @PostMapping
+    public ResponseEntity<Void> create(
+        @RequestHeader(UPLOAD_LENGTH) long length,
+        @RequestHeader(value = "Upload-Metadata", required = false) String metadata,
+        HttpServletRequest request
+    ) throws IOException {
+        String filename = filenameFrom(metadata);
+        UploadStatus status;
+        try {
+            status = uploads.create(filename, length);
+        } catch (IllegalArgumentException e) {
+            logger.warn("[UPLOAD] Rejected resumable upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        URI location = ServletUriComponentsBuilder.fromRequestUri(request)
+            .path("/{id}")
+            .buildAndExpand(status.id())
+            .toUri();
+        return ResponseEntity.created(location)
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .header(UPLOAD_OFFSET, "0")
+            .build();
+    }
+
+    /**
+     * Current offset of an upload.
+     *
+     * @param id upload ID
+     * @return 200 with Upload-Offset and Upload-Length, or 404
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> offset(@PathVariable String id) {
+        UploadStatus status;
+        try {
+            status = uploads.status(id);
+        } catch (UploadNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .header(UPLOAD_OFFSET, String.valueOf(status.offset()))
+            .header(UPLOAD_LENGTH, String.valueOf(status.length()))
+            .build();
+    }
+
+    /**
+     * Append a chunk.
+     *
+     * @param id      upload ID
+     * @param offset  offset the chunk starts at
+     * @param request servlet request whose body is the chunk
+     * @return 204 with the new Upload-Offset, 201 + pack when complete,
+     *         404 if unknown or 409 if the offset does not match
+     */
+    @PatchMapping(
+        value = "/{id}",
+        consumes = "application/offset+octet-stream"
+    )
+    public ResponseEntity<?> append(
+        @PathVariable String id,
+        @RequestHeader(UPLOAD_OFFSET) long offset,
+        HttpServletRequest request
+    ) throws IOException {
+        UploadStatus status;
+        try {
+            status = uploads.append(id, offset, request.getInputStream(), request);
+        } catch (UploadOffsetException e) {
+            logger.info("[UPLOAD] {}", e.getMessage());
+            return ResponseEntity.status(409)
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(e.getCurrentOffset()))
+                .build();
+        } catch (EOFException | ClientAbortException | SocketException e) {
+            logger.warn(
+                "[UPLOAD] Client aborted chunk of upload {}, resumable: {}",
+                id,
+                e.getMessage()
+            );
+            return ResponseEntity.status(204).build();
+        } catch (UploadNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (status.pack() != null) {
+            logger.info(
+                "[UPLOAD] Success: resumable upload {} saved as pack id={}",
+                id,
+                status.pack().getId()
+            );
+            return ResponseEntity.status(201)
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(status.offset()))
+                .body(status.pack());
+        }
+        return ResponseEntity.noContent()
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .header(UPLOAD_OFFSET, String.valueOf(status.offset()))
+            .build();
+    }
+
+    /**
+     * Abort an upload.
+     *
+     * @param id upload ID
+     * @return 204, or 404 if unknown
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@PathVariable String id)
+        throws IOException {
+        try {
+            uploads.cancel(id);
+        } catch (UploadNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent()
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .build();
+    }
+
+    /**
+     * Read the {@code filename} entry of a tus {@code Upload-Metadata}
+     * header ({@code key base64value} pairs separated by commas).
+     */
+    static String filenameFrom(String metadata) {
+        if (metadata != null) {
+            for (String pair : metadata.split(",")) {
+                String[] kv = pair.trim().split(" ", 2);
+                if (kv[0].equals("filename") && kv.length == 2) {
+                    try {
+                        return new String(
+                            Base64.getDecoder().decode(kv[1].trim()),
+                            StandardCharsets.UTF_8
+                        );
+                    } catch (IllegalArgumentException e) {
+                        logger.warn("[UPLOAD] Ignoring malformed filename metadata");
+                    }
+                }
+            }
+        }
+        return "pack.zip";
+    }
+}
@@ -9,6 +9,10 @@ import java.util.List;
 import org.apache.catalina.connector.ClientAbortException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,15 +22,30 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.zacklack.zacklack.dto.PackFilter;
+import com.zacklack.zacklack.dto.PackPage;
+import com.zacklack.zacklack.dto.PackSummary;
+import com.zacklack.zacklack.exception.InvalidPackException;
 import com.zacklack.zacklack.model.ConversionJob;
 import com.zacklack.zacklack.model.ResourcePack;
 import com.zacklack.zacklack.repository.ConversionJobRepository;
+import com.zacklack.zacklack.service.ConversionEventService;
+import com.zacklack.zacklack.service.ConversionLogService;
 import com.zacklack.zacklack.service.ConverterService;
+import com.zacklack.zacklack.service.MultipartUploadService;
+import com.zacklack.zacklack.service.PackChangeTracker;
+import com.zacklack.zacklack.service.PackDistributionIndex;
+import com.zacklack.zacklack.service.PackDownloadService;
 import com.zacklack.zacklack.service.ResourcePackService;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * REST controller exposing CRUD and conversion endpoints for ResourcePacks.
@@ -39,43 +58,135 @@ public class ResourcePackController {
         ResourcePackController.class
     );
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ResourcePackService service;
     private final ConverterService converterService;
     private final ConversionJobRepository conversionJobRepository;
+    private final ConversionLogService conversionLogService;
+    private final ConversionEventService conversionEventService;
+    private final PackDownloadService downloadService;
+    private final PackChangeTracker changes;
+    private final MultipartUploadService multipartUploads;
+
+    /**
+     * Public origin used in distribution URLs, e.g. the CDN in front of the
+     * backend. Empty means the origin of the incoming request.
+     */
+    @Value("${distribution.public-base-url:}")
+    private String publicBaseUrl;
 
     public ResourcePackController(
         ResourcePackService service,
         ConverterService converterService,
-        ConversionJobRepository conversionJobRepository
+        ConversionJobRepository conversionJobRepository,
+        ConversionLogService conversionLogService,
+        ConversionEventService conversionEventService,
+        PackDownloadService downloadService,
+        PackChangeTracker changes,
+        MultipartUploadService multipartUploads
     ) {
         this.service = service;
         this.converterService = converterService;
         this.conversionJobRepository = conversionJobRepository;
+        this.conversionLogService = conversionLogService;
+        this.conversionEventService = conversionEventService;
+        this.downloadService = downloadService;
+        this.changes = changes;
+        this.multipartUploads = multipartUploads;
+    }
+
+    /**
+     * Check the client's If-None-Match / If-Modified-Since against the
+     * current pack data version. On a match the response is already set to
+     * 304 and the caller returns null; otherwise ETag and Last-Modified are
+     * added to the response. Validators are read before any data is loaded,
+     * so a concurrent change at worst causes one extra refetch.
+     */
+    private boolean notModified(WebRequest request) {
+        return request.checkNotModified(
+            changes.etag(),
+            changes.lastModified().toEpochMilli()
+        );
     }
 
     /**
-     * List all resource packs.
+     * List original resource packs, newest first, one page at a time.
+     * <p>
+     * The body is a JSON array. When more packs follow, the response carries
+     * the cursor for the next page in {@code X-Next-Cursor} and a
+     * {@code Link: <...>; rel="next"} header.
      *
-     * @return list of all ResourcePack entities
+     * @param packFormat optional pack_format filter
+     * @param mcVersion  optional Minecraft version filter
+     * @param name       optional original filename prefix
+     * @param cursor     cursor from the previous page
+     * @param limit      page size (default and maximum are configurable)
+     * @param request    used for conditional GET
+     * @param servletRequest used to build the next-page link
+     * @return one page of packs, 304 if unchanged, or 400 for a bad cursor
      */
     @GetMapping
-    public List<ResourcePack> getAllPacks() {
-        logger.debug("Fetching all resource packs");
-        logger.info("If the result is empty, possible reasons: no resource packs have been uploaded, or database connection issues. Check DB status if unexpected.");
-        return service.findAllOriginals();
+    public ResponseEntity<List<PackSummary>> getAllPacks(
+        @RequestParam(required = false) Integer packFormat,
+        @RequestParam(required = false) String mcVersion,
+        @RequestParam(required = false) String name,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        WebRequest request,
+        HttpServletRequest servletRequest
+    ) {
+        if (notModified(request)) {
+            return null;
+        }
+        logger.debug("Fetching resource packs (cursor={}, limit={})", cursor, limit);
+        PackPage<PackSummary> page;
+        try {
+            page = service.findOriginals(
+                new PackFilter(packFormat, mcVersion, name),
+                cursor,
+                limit
+            );
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected pack listing: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        if (page.items().isEmpty() && cursor == null) {
+            logger.info("If the result is empty, possible reasons: no resource packs have been uploaded, filters match nothing, or database connection issues. Check DB status if unexpected.");
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache());
+        if (page.nextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromRequest(servletRequest)
+                .replaceQueryParam("cursor", page.nextCursor())
+                .toUriString();
+            response
+                .header(NEXT_CURSOR_HEADER, page.nextCursor())
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.items());
     }
 
     /**
      * Fetch a single ResourcePack by its ID.
      *
-     * @param id ID of the pack to retrieve
-     * @return 200 + ResourcePack or 404 if not found
+     * @param id      ID of the pack to retrieve
+     * @param request used for conditional GET
+     * @return 200 + ResourcePack, 304 if unchanged or 404 if not found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ResourcePack> getPack(@PathVariable Long id) {
+    public ResponseEntity<PackSummary> getPack(
+        @PathVariable Long id,
+        WebRequest request
+    ) {
+        if (notModified(request)) {
+            return null;
+        }
         logger.debug("Fetching resource pack with id={}", id);
         try {
-            return ResponseEntity.ok(service.findById(id));
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(service.findSummary(id));
         } catch (RuntimeException e) {
             logger.error("Failed to fetch resource pack with id={}: {}", id, e.getMessage(), e);
             logger.info("Possible reason: Resource pack with the given ID does not exist, or there is a database connectivity issue. Verify the ID and DB status.");
@@ -85,57 +196,155 @@ public class ResourcePackController {
 
     /**
      * List converted versions for a given ResourcePack.
+     *
+     * @param id      pack ID
+     * @param request used for conditional GET
+     * @return converted packs, or 304 if unchanged
      */
     @GetMapping("/{id}/conversions")
-    public List<ResourcePack> getConversions(@PathVariable Long id) {
+    public ResponseEntity<List<PackSummary>> getConversions(
+        @PathVariable Long id,
+        WebRequest request
+    ) {
+        if (notModified(request)) {
+            return null;
+        }
         logger.debug("Fetching conversions for pack id={}", id);
         logger.info("If no conversions are found, possible reasons: No conversions have been performed for this pack, or the pack ID is invalid.");
-        return service.findConversions(id);
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .body(service.findConversionSummaries(id));
     }
 
     /**
      * Get the SHA-1 hash of the stored file for a given pack.
      *
-     * @param id pack ID
-     * @return 200 + hash string or 404 if pack not found
+     * @param id      pack ID
+     * @param request used for conditional GET
+     * @return 200 + hash string, 304 if unchanged or 404 if pack not found
      */
     @GetMapping("/{id}/hash")
-    public ResponseEntity<String> getHash(@PathVariable Long id) {
+    public ResponseEntity<String> getHash(
+        @PathVariable Long id,
+        WebRequest request
+    ) {
+        if (notModified(request)) {
+            return null;
+        }
         try {
             String hash = service.findHashById(id);
             logger.debug("Hash for pack {}: {}", id, hash);
-            return ResponseEntity.ok(hash);
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(hash);
         } catch (RuntimeException e) {
             logger.warn("Hash requested for non-existent pack id={}", id, e);
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Distribution settings for a Minecraft server, ready to paste into
+     * {@code server.properties}:
+     * <pre>
+     * resource-pack=https://host/api/resourcepacks/{id}/download
+     * resource-pack-sha1=&lt;sha1&gt;
+     * </pre>
+     * Served from the in-memory distribution index; the SHA-1 doubles as a
+     * strong ETag, so a server reloading the same pack gets a 304.
+     *
+     * @param id         pack ID
+     * @param webRequest used for conditional GET
+     * @param request    used to build the download URL
+     * @return 200 + properties text, 304 if unchanged or 404 if not found
+     */
+    @GetMapping(
+        value = "/{id}/server-properties",
+        produces = MediaType.TEXT_PLAIN_VALUE
+    )
+    public ResponseEntity<String> getServerProperties(
+        @PathVariable Long id,
+        WebRequest webRequest,
+        HttpServletRequest request
+    ) {
+        PackDistributionIndex.Entry entry;
+        try {
+            entry = service.findDistribution(id);
+        } catch (RuntimeException e) {
+            logger.warn("Distribution requested for non-existent pack id={}", id);
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified("\"" + entry.fileHash() + "\"")) {
+            return null;
+        }
+        UriComponentsBuilder base = publicBaseUrl == null ||
+            publicBaseUrl.isBlank()
+            ? ServletUriComponentsBuilder.fromContextPath(request)
+            : UriComponentsBuilder.fromUriString(publicBaseUrl);
+        String url = base
+            .path("/api/resourcepacks/{id}/download")
+            .buildAndExpand(id)
+            .toUriString();
+        String body =
+            "resource-pack=" + url + "\n" +
+            "resource-pack-sha1=" + entry.fileHash() + "\n";
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache())
+            .body(body);
+    }
+
+    /**
+     * Download the stored file of a pack (original or converted).
+     * Supports Range requests and answers with the SHA-1 as a strong ETag;
+     * responses may be cached as immutable.
+     *
+     * @param id       pack ID
+     * @param request  servlet request (Range, If-None-Match, If-Range)
+     * @param response servlet response the file is written to
+     */
+    @GetMapping("/{id}/download")
+    public void download(
+        @PathVariable Long id,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        ResourcePack pack;
+        try {
+            pack = service.findById(id);
+        } catch (RuntimeException e) {
+            logger.warn("Download requested for non-existent pack id={}", id);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        downloadService.send(pack, request, response);
+    }
+
     /**
      * Upload a new resource pack ZIP (must contain pack.mcmeta).
+     * <p>
+     * Expects {@code multipart/form-data} with the ZIP in a {@code file}
+     * part. The part the container spooled to disk is moved into storage
+     * rather than copied.
      *
-     * @param file      uploaded ZIP file
-     * @param request   servlet request (for client IP)
+     * @param request   multipart request (body, client IP)
      * @param userAgent optional User-Agent header
      * @return 201 + created ResourcePack or appropriate error status
      */
     @PostMapping(consumes = "multipart/form-data")
     public ResponseEntity<ResourcePack> uploadPack(
-        @RequestParam("file") MultipartFile file,
         HttpServletRequest request,
         @RequestHeader(value = "User-Agent", required = false) String userAgent
     ) throws NoSuchAlgorithmException {
         String clientIp = request.getRemoteAddr();
         logger.info(
-            "[UPLOAD] Start: filename={}, size={} bytes, clientIp={}, userAgent={}",
-            file.getOriginalFilename(),
-            file.getSize(),
+            "[UPLOAD] Start: request size={} bytes, clientIp={}, userAgent={}",
+            request.getContentLengthLong(),
             clientIp,
             userAgent
         );
 
         try {
-            ResourcePack saved = service.store(file, request);
+            ResourcePack saved = multipartUploads.receive(request);
             logger.info(
                 "[UPLOAD] Success: saved pack id={} ({} bytes)",
                 saved.getId(),
@@ -144,19 +353,25 @@ public class ResourcePackController {
             return ResponseEntity.status(201).body(saved);
         } catch (EOFException | ClientAbortException | SocketException e) {
             logger.warn(
-                "[UPLOAD] Client aborted during upload: {} — {}",
-                file.getOriginalFilename(),
+                "[UPLOAD] Client aborted during upload from {} — {}",
+                clientIp,
                 e.getMessage()
             );
             return ResponseEntity.status(204).build();
         } catch (IOException e) {
             logger.error(
-                "[UPLOAD] I/O error storing file {}: {}",
-                file.getOriginalFilename(),
+                "[UPLOAD] I/O error storing upload from {}: {}",
+                clientIp,
                 e.getMessage(),
                 e
             );
             return ResponseEntity.status(500).build();
+        } catch (IllegalArgumentException e) {
+            logger.warn("[UPLOAD] Rejected: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (InvalidPackException | MaxUploadSizeExceededException e) {
+            // Answered with 400 / 413 by GlobalExceptionHandler
+            throw e;
         } catch (RuntimeException e) {
             logger.error(
                 "[UPLOAD] Unexpected runtime error: {}",
@@ -181,25 +396,43 @@ public class ResourcePackController {
     }
 
     /**
-     * Trigger an asynchronous conversion job for a pack.
+     * Trigger asynchronous conversion of a pack to one or more versions.
+     * Several versions ({@code ?version=1.20&version=1.21} or
+     * {@code ?version=1.20,1.21}) run as one batch that stages the input once.
      *
-     * @param id      pack ID
-     * @param version target Minecraft version
-     * @return 202 + ConversionJob info
+     * @param id       pack ID
+     * @param versions target Minecraft version(s)
+     * @return 202 + ConversionJob for a single version or a list of jobs for
+     *         several, 400 if no version is given, or 429 + Retry-After if
+     *         the conversion queue is full
      */
     @PostMapping("/{id}/convert")
-    public ResponseEntity<ConversionJob> convert(
+    public ResponseEntity<?> convert(
         @PathVariable Long id,
-        @RequestParam("version") String version
+        @RequestParam("version") List<String> versions
     ) {
         logger.info(
-            "Creating conversion job for pack={} to version={}",
+            "Creating conversion job(s) for pack={} to version(s)={}",
             id,
-            version
+            versions
+        );
+        List<String> targets = versions
+            .stream()
+            .map(String::trim)
+            .filter(v -> !v.isEmpty())
+            .distinct()
+            .toList();
+        if (targets.isEmpty()) {
+            return ResponseEntity.badRequest().body("No target version given");
+        }
+        if (targets.size() == 1) {
+            return ResponseEntity.accepted().body(
+                converterService.submit(id, targets.get(0))
+            );
+        }
+        return ResponseEntity.accepted().body(
+            converterService.submitAll(id, targets)
         );
-        ConversionJob job = converterService.createJob(id, version);
-        converterService.runConversion(job.getId());
-        return ResponseEntity.accepted().body(job);
     }
 
     /**
@@ -213,4 +446,49 @@ public class ResourcePackController {
         logger.debug("Fetching conversion job id={}", jobId);
         return ResponseEntity.of(conversionJobRepository.findById(jobId));
     }
+
+    /**
+     * Stream the console output of a conversion job as Server-Sent Events.
+     * Running jobs are tailed live; finished jobs replay the stored log.
+     *
+     * @param jobId conversion job ID
+     * @return event stream, or 404 if the job is unknown
+     */
+    @GetMapping(
+        value = "/conversions/{jobId}/log",
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public ResponseEntity<SseEmitter> streamJobLog(@PathVariable Long jobId) {
+        logger.debug("Streaming log for conversion job id={}", jobId);
+        try {
+            return ResponseEntity.ok(conversionLogService.subscribe(jobId));
+        } catch (RuntimeException e) {
+            logger.warn("Log requested for non-existent job id={}", jobId);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Watch several conversion jobs over one Server-Sent Events stream.
+     * Sends the current state of each job, then every status change; the
+     * stream ends once all watched jobs are COMPLETED or FAILED.
+     *
+     * @param ids conversion job IDs, e.g. {@code ?ids=1,2,3}
+     * @return event stream, or 400 if no or too many IDs are given
+     */
+    @GetMapping(
+        value = "/conversions/events",
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public ResponseEntity<SseEmitter> streamJobStatus(
+        @RequestParam("ids") List<Long> ids
+    ) {
+        logger.debug("Streaming status for {} conversion job(s)", ids.size());
+        try {
+            return ResponseEntity.ok(conversionEventService.subscribe(ids));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected status subscription: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 }
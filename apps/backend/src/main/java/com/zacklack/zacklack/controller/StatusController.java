@@ -1,7 +1,9 @@
 package com.zacklack.zacklack.controller;
 
 import java.util.Map;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -11,8 +13,37 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 public class StatusController {
 
+    private final ThreadPoolTaskExecutor conversionExecutor;
+
+    public StatusController(
+        @Qualifier("conversionExecutor") ThreadPoolTaskExecutor conversionExecutor
+    ) {
+        this.conversionExecutor = conversionExecutor;
+    }
+
     @GetMapping("/status")
     public ResponseEntity<Map<String, String>> status() {
         return ResponseEntity.ok(Map.of("status", "ok"));
     }
+
+    /**
+     * Current load of the conversion executor.
+     *
+     * @return active and configured workers, queued and allowed conversions
+     */
+    @GetMapping("/status/conversions")
+    public ResponseEntity<Map<String, Integer>> conversions() {
+        return ResponseEntity.ok(
+            Map.of(
+                "activeWorkers",
+                conversionExecutor.getActiveCount(),
+                "workers",
+                conversionExecutor.getMaxPoolSize(),
+                "queueDepth",
+                conversionExecutor.getQueueSize(),
+                "queueCapacity",
+                conversionExecutor.getQueueCapacity()
+            )
+        );
+    }
 }
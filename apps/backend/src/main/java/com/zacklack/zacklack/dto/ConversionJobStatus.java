@@ -0,0 +1,40 @@
+package com.zacklack.zacklack.dto;
+
+import com.zacklack.zacklack.model.ConversionJob;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Compact view of a conversion job for status updates; leaves out the
+ * console log.
+ */
+public record ConversionJobStatus(
+    Long id,
+    Long packId,
+    String targetVersion,
+    String status,
+    Long resultPackId,
+    String errorMessage,
+    LocalDateTime createdAt,
+    LocalDateTime completedAt,
+    Map<String, Long> stageTimings
+) {
+    public static ConversionJobStatus from(ConversionJob job) {
+        return new ConversionJobStatus(
+            job.getId(),
+            job.getResourcePack() != null ? job.getResourcePack().getId() : null,
+            job.getTargetVersion(),
+            job.getStatus(),
+            job.getResultPackId(),
+            job.getErrorMessage(),
+            job.getCreatedAt(),
+            job.getCompletedAt(),
+            job.getStageTimings()
+        );
+    }
+
+    /** Whether the job has reached COMPLETED or FAILED. */
+    public boolean isFinished() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+}
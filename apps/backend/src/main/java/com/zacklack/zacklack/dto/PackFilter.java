@@ -0,0 +1,18 @@
+package com.zacklack.zacklack.dto;
+
+/**
+ * Optional filters for listing original packs; null fields are ignored.
+ *
+ * @param packFormat pack_format from pack.mcmeta
+ * @param mcVersion  Minecraft version derived from the pack format
+ * @param namePrefix start of the original filename
+ */
+public record PackFilter(
+    Integer packFormat,
+    String mcVersion,
+    String namePrefix
+) {
+    public static PackFilter none() {
+        return new PackFilter(null, null, null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.zacklack.zacklack.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param items      items on this page
+ * @param nextCursor opaque cursor for the following page, or null if this is
+ *                   the last one
+ */
+public record PackPage<T>(List<T> items, String nextCursor) {}
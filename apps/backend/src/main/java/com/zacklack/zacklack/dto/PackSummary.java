@@ -0,0 +1,87 @@
+package com.zacklack.zacklack.dto;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read model of a pack for the metadata API.
+ * <p>
+ * Built from plain column values so serializing it never touches lazy
+ * associations. {@code conversions} is filled for originals by one batched
+ * query and is empty for converted packs.
+ */
+public record PackSummary(
+    Long id,
+    String originalFilename,
+    String storageFilename,
+    Long size,
+    String fileHash,
+    String sha256,
+    LocalDateTime uploadDate,
+    Integer packFormat,
+    String minecraftVersion,
+    boolean converted,
+    String targetVersion,
+    Long originalPackId,
+    List<PackSummary> conversions
+) {
+    /** Row without conversions; used by JPQL constructor expressions. */
+    public PackSummary(
+        Long id,
+        String originalFilename,
+        String storageFilename,
+        Long size,
+        String fileHash,
+        String sha256,
+        LocalDateTime uploadDate,
+        Integer packFormat,
+        String minecraftVersion,
+        boolean converted,
+        String targetVersion,
+        Long originalPackId
+    ) {
+        this(
+            id,
+            originalFilename,
+            storageFilename,
+            size,
+            fileHash,
+            sha256,
+            uploadDate,
+            packFormat,
+            minecraftVersion,
+            converted,
+            targetVersion,
+            originalPackId,
+            List.of()
+        );
+    }
+
+    /**
+     * Summary of a loaded entity. Reads only basic columns and the foreign
+     * key of {@code originalPack}.
+     */
+    public static PackSummary of(
+        ResourcePack pack,
+        List<PackSummary> conversions
+    ) {
+        return new PackSummary(
+            pack.getId(),
+            pack.getOriginalFilename(),
+            pack.getStorageFilename(),
+            pack.getSize(),
+            pack.getFileHash(),
+            pack.getSha256(),
+            pack.getUploadDate(),
+            pack.getPackFormat(),
+            pack.getMinecraftVersion(),
+            pack.isConverted(),
+            pack.getTargetVersion(),
+            pack.getOriginalPack() != null
+                ? pack.getOriginalPack().getId()
+                : null,
+            conversions
+        );
+    }
+}
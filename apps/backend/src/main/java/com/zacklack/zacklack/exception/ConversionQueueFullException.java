@@ -0,0 +1,18 @@
+package com.zacklack.zacklack.exception;
+
+/**
+ * Thrown when a conversion cannot be queued because the conversion executor is saturated.
+ */
+public class ConversionQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ConversionQueueFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -6,6 +6,7 @@ import java.net.SocketException;
 import org.apache.catalina.connector.ClientAbortException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -49,6 +50,31 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Conversion queue is full (ConversionQueueFullException).
+     * Answers 429 with a Retry-After hint so clients back off instead of retrying immediately.
+     */
+    @ExceptionHandler(ConversionQueueFullException.class)
+    public ResponseEntity<String> handleConversionQueueFull(
+        ConversionQueueFullException ex,
+        HttpServletRequest request
+    ) {
+        logger.warn(
+            "Conversion rejected: {} | path={} | IP={} | UA={}",
+            ex.getMessage(),
+            request.getRequestURI(),
+            request.getRemoteAddr(),
+            request.getHeader("User-Agent")
+        );
+        logger.info("Possible reason: All conversion workers are busy and the queue is at capacity. Consider raising conversion.executor.workers or conversion.executor.queue-capacity if this happens regularly.");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(
+                HttpHeaders.RETRY_AFTER,
+                String.valueOf(ex.getRetryAfterSeconds())
+            )
+            .body(ex.getMessage());
+    }
+
     /**
      * Handle 404 Not Found with custom HTML error page (see templates/error-404.html).
      * Logs the missing path, client IP, and user agent for audit and troubleshooting.
@@ -0,0 +1,12 @@
+package com.zacklack.zacklack.exception;
+
+/**
+ * Thrown when a resumable upload ID is unknown, because it never existed,
+ * was completed or cancelled, or expired.
+ */
+public class UploadNotFoundException extends RuntimeException {
+
+    public UploadNotFoundException(String id) {
+        super("Upload not found: " + id);
+    }
+}
@@ -0,0 +1,19 @@
+package com.zacklack.zacklack.exception;
+
+/**
+ * Thrown when a resumable upload chunk does not start at the current upload
+ * offset, or another chunk for the same upload is still being written.
+ */
+public class UploadOffsetException extends RuntimeException {
+
+    private final long currentOffset;
+
+    public UploadOffsetException(String message, long currentOffset) {
+        super(message);
+        this.currentOffset = currentOffset;
+    }
+
+    public long getCurrentOffset() {
+        return currentOffset;
+    }
+}
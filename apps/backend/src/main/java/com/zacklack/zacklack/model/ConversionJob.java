@@ -1,6 +1,7 @@
 package com.zacklack.zacklack.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -9,6 +10,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Entity
 @Table(name = "conversion_jobs")
@@ -41,6 +43,78 @@ public class ConversionJob {
     @Column(name = "console_log", columnDefinition = "TEXT")
     private String consoleLog;
 
+    // Converted ResourcePack produced (or reused) by this job
+    @Column(name = "result_pack_id")
+    private Long resultPackId;
+
+    // Node that claimed the job from the queue, and when
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+
+    // Last lease renewal by the claiming node
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    // Number of times the job has been claimed
+    @Column(nullable = false)
+    private int attempts;
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    // Milliseconds per stage of the last run, in the order the stages ran
+    @Column(name = "stage_timings", length = 512)
+    @Convert(converter = StageTimingsConverter.class)
+    private Map<String, Long> stageTimings;
+
+    public Map<String, Long> getStageTimings() {
+        return stageTimings;
+    }
+
+    public void setStageTimings(Map<String, Long> stageTimings) {
+        this.stageTimings = stageTimings;
+    }
+
+    public Long getResultPackId() {
+        return resultPackId;
+    }
+
+    public void setResultPackId(Long resultPackId) {
+        this.resultPackId = resultPackId;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
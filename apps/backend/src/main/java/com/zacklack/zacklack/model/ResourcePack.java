@@ -26,7 +26,8 @@ public class ResourcePack {
     @Column(name = "original_filename", nullable = false)
     private String originalFilename;
 
-    @Column(name = "storage_filename", nullable = false, unique = true)
+    // Not unique: content-addressed uploads share one file per hash
+    @Column(name = "storage_filename", nullable = false)
     private String storageFilename;
 
     @Column(nullable = false)
@@ -35,6 +36,10 @@ public class ResourcePack {
     @Column(name = "file_hash", nullable = false, length = 64)
     private String fileHash;
 
+    // SHA-256 for integrity audits; null for rows stored before it existed
+    @Column(name = "file_sha256", length = 64)
+    private String sha256;
+
     @Column(name = "upload_date", nullable = false)
     private LocalDateTime uploadDate;
 
@@ -95,6 +100,14 @@ public class ResourcePack {
         this.fileHash = fileHash;
     }
 
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
     // --- Getters & Setters ---
     public Long getId() {
         return id;
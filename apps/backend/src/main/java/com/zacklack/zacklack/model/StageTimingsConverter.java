@@ -0,0 +1,48 @@
+package com.zacklack.zacklack.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores stage durations as a compact JSON object, e.g.
+ * {@code {"queued":12,"stage":3,"convert":5400,"hash":41}}. Key order is
+ * kept so the stages read in the order they ran.
+ */
+@Converter
+public class StageTimingsConverter
+    implements AttributeConverter<Map<String, Long>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<LinkedHashMap<String, Long>> TYPE =
+        new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Long> timings) {
+        if (timings == null || timings.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(timings);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unserializable timings", e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed stage timings", e);
+        }
+    }
+}
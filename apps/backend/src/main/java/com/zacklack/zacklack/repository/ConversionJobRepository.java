@@ -1,7 +1,204 @@
 package com.zacklack.zacklack.repository;
 
 import com.zacklack.zacklack.model.ConversionJob;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface ConversionJobRepository
-    extends JpaRepository<ConversionJob, Long> {}
+    extends JpaRepository<ConversionJob, Long> {
+    /**
+     * Move a PENDING job to IN_PROGRESS for {@code node} and start its lease.
+     * The status check in the statement makes this a compare-and-set: of
+     * several nodes claiming the same job, exactly one sees 1.
+     *
+     * @return 1 if claimed, 0 if the job is gone or no longer PENDING
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        """
+        update ConversionJob j
+        set j.status = 'IN_PROGRESS', j.claimedBy = :node, j.claimedAt = :now,
+            j.heartbeatAt = :now, j.attempts = j.attempts + 1
+        where j.id = :id and j.status = 'PENDING'
+        """
+    )
+    int claim(
+        @Param("id") Long id,
+        @Param("node") String node,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Lock up to {@code limit} of the oldest PENDING jobs for the current
+     * transaction. Rows locked by another node's claim are skipped rather
+     * than waited for, so concurrent pollers take disjoint batches.
+     */
+    @Query(
+        value = """
+        select id from conversion_jobs
+        where status = 'PENDING'
+        order by created_at, id
+        limit :limit
+        for update skip locked
+        """,
+        nativeQuery = true
+    )
+    List<Long> lockPendingIds(@Param("limit") int limit);
+
+    /**
+     * Hand a claimed job back to the queue. The job never started, so the
+     * claim does not count as an attempt.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        """
+        update ConversionJob j
+        set j.status = 'PENDING', j.claimedBy = null, j.claimedAt = null,
+            j.heartbeatAt = null, j.attempts = j.attempts - 1
+        where j.id = :id and j.status = 'IN_PROGRESS' and j.claimedBy = :node
+        """
+    )
+    int release(@Param("id") Long id, @Param("node") String node);
+
+    /**
+     * Record the outcome of a job {@code node} ran. Conditional like
+     * {@link #release}: once the lease expired and the job was requeued,
+     * failed or claimed again, nothing matches and that outcome stands.
+     *
+     * @return 1 if recorded, 0 if {@code node} no longer holds the job
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        """
+        update ConversionJob j
+        set j.status = :status, j.errorMessage = :error,
+            j.completedAt = :now, j.consoleLog = :log,
+            j.stageTimings = :timings
+        where j.id = :id and j.status = 'IN_PROGRESS' and j.claimedBy = :node
+        """
+    )
+    int finish(
+        @Param("id") Long id,
+        @Param("node") String node,
+        @Param("status") String status,
+        @Param("error") String error,
+        @Param("log") String log,
+        @Param("timings") Map<String, Long> timings,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Attach the result to a job {@code node} has just finished, in the
+     * transaction of {@link #finish}.
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        """
+        update ConversionJob j
+        set j.resultPackId = :resultId, j.stageTimings = :timings
+        where j.id = :id and j.claimedBy = :node
+        """
+    )
+    int recordResult(
+        @Param("id") Long id,
+        @Param("node") String node,
+        @Param("resultId") Long resultId,
+        @Param("timings") Map<String, Long> timings
+    );
+
+    long countByStatus(String status);
+
+    /** Whether {@code node} still holds the lease on a running job. */
+    boolean existsByIdAndStatusAndClaimedBy(
+        Long id,
+        String status,
+        String claimedBy
+    );
+
+    /** Renew the leases {@code node} holds on running jobs. */
+    @Modifying
+    @Transactional
+    @Query(
+        """
+        update ConversionJob j
+        set j.heartbeatAt = :now
+        where j.id in :ids and j.status = 'IN_PROGRESS' and j.claimedBy = :node
+        """
+    )
+    int heartbeat(
+        @Param("ids") Collection<Long> ids,
+        @Param("node") String node,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Running jobs whose lease was last renewed before {@code cutoff}. Jobs
+     * from before leases existed fall back to their claim or creation time.
+     */
+    @Query(
+        """
+        select j.id from ConversionJob j
+        where j.status = 'IN_PROGRESS'
+        and coalesce(j.heartbeatAt, j.claimedAt, j.createdAt) < :cutoff
+        """
+    )
+    List<Long> findExpiredLeases(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Put a job with an expired lease back in the queue, unless it has
+     * used up its attempts. Conditional like {@link #claim}, so only one
+     * reaper acts on each job.
+     *
+     * @return 1 if requeued
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        """
+        update ConversionJob j
+        set j.status = 'PENDING', j.claimedBy = null, j.claimedAt = null,
+            j.heartbeatAt = null
+        where j.id = :id and j.status = 'IN_PROGRESS'
+        and coalesce(j.heartbeatAt, j.claimedAt, j.createdAt) < :cutoff
+        and j.attempts < :maxAttempts
+        """
+    )
+    int requeueExpired(
+        @Param("id") Long id,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("maxAttempts") int maxAttempts
+    );
+
+    /**
+     * Fail a job whose lease expired.
+     *
+     * @return 1 if failed
+     */
+    @Modifying
+    @Transactional
+    @Query(
+        """
+        update ConversionJob j
+        set j.status = 'FAILED', j.errorMessage = :message, j.completedAt = :now
+        where j.id = :id and j.status = 'IN_PROGRESS'
+        and coalesce(j.heartbeatAt, j.claimedAt, j.createdAt) < :cutoff
+        """
+    )
+    int failExpired(
+        @Param("id") Long id,
+        @Param("cutoff") LocalDateTime cutoff,
+        @Param("message") String message,
+        @Param("now") LocalDateTime now
+    );
+}
@@ -1,14 +1,54 @@
 package com.zacklack.zacklack.repository;
 
+import com.zacklack.zacklack.dto.PackSummary;
 import com.zacklack.zacklack.model.ResourcePack;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ResourcePackRepository
-    extends JpaRepository<ResourcePack, Long> {
+    extends
+        JpaRepository<ResourcePack, Long>,
+        JpaSpecificationExecutor<ResourcePack> {
     List<ResourcePack> findByOriginalPackId(Long originalPackId);
 
     List<ResourcePack> findByConvertedFalse();
+
+    /** Any pack whose stored bytes have this SHA-1 (uses idx_resource_packs_file_hash). */
+    Optional<ResourcePack> findFirstByFileHash(String fileHash);
+
+    /** Number of packs that reference the given stored file. */
+    long countByStorageFilename(String storageFilename);
+
+    /** Existing conversions of any original with the given content hash. */
+    List<ResourcePack> findByConvertedTrueAndTargetVersionAndOriginalPackFileHash(
+        String targetVersion,
+        String fileHash
+    );
+
+    /** Highest pack ID, or 0 without packs. */
+    @Query("select coalesce(max(r.id), 0) from ResourcePack r")
+    long maxId();
+
+    /** Conversions of several originals in one statement, as summaries. */
+    @Query(
+        """
+        select new com.zacklack.zacklack.dto.PackSummary(
+            r.id, r.originalFilename, r.storageFilename, r.size, r.fileHash,
+            r.sha256, r.uploadDate, r.packFormat, r.minecraftVersion, r.converted,
+            r.targetVersion, r.originalPack.id)
+        from ResourcePack r
+        where r.originalPack.id in :originalIds
+        order by r.uploadDate, r.id
+        """
+    )
+    List<PackSummary> findConversionSummaries(
+        @Param("originalIds") Collection<Long> originalIds
+    );
 }
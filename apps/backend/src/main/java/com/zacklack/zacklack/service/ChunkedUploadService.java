@@ -0,0 +1,378 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.exception.InvalidPackException;
+import com.zacklack.zacklack.exception.UploadNotFoundException;
+import com.zacklack.zacklack.exception.UploadOffsetException;
+import com.zacklack.zacklack.model.ResourcePack;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Resumable uploads in the style of the tus protocol.
+ * <p>
+ * A client announces the total size, then sends the file in chunks at
+ * explicit offsets. Each chunk is appended to a staging file and fed into
+ * digests kept in memory between requests, so a dropped connection
+ * only loses the bytes that never arrived. Once the last byte is written the
+ * file is handed to {@link ResourcePackService#storeStaged} for validation
+ * and persistence.
+ * <p>
+ * Upload state lives in this JVM: after a restart unfinished uploads are
+ * gone and their staging files are removed.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ChunkedUploadService.class
+    );
+
+    private final ResourcePackService packService;
+    private final HashingService hashing;
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    /**
+     * Directory for partial uploads. Empty means a sibling of the upload
+     * directory, so completed files are renamed into place rather than
+     * copied and partial files are never served under /uploads.
+     */
+    @Value("${upload.chunked.staging-dir:}")
+    private String stagingDir;
+
+    @Value("${upload.chunked.max-size-bytes:104857600}")
+    private long maxSize;
+
+    @Value("${upload.chunked.expire-after-minutes:60}")
+    private long expireAfterMinutes;
+
+    private Path stagingPath;
+
+    public ChunkedUploadService(
+        ResourcePackService packService,
+        HashingService hashing
+    ) {
+        this.packService = packService;
+        this.hashing = hashing;
+    }
+
+    /**
+     * Progress of an upload.
+     *
+     * @param id     upload ID
+     * @param offset bytes received so far
+     * @param length total size announced by the client
+     * @param pack   the stored pack once the upload is complete, else null
+     */
+    public record UploadStatus(
+        String id,
+        long offset,
+        long length,
+        ResourcePack pack
+    ) {}
+
+    private static final class Upload {
+
+        final String id;
+        final String filename;
+        final long length;
+        final Path staging;
+        final HashingService.Hasher hasher;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long offset;
+        volatile long lastActivity = System.nanoTime();
+        // Set once all bytes arrived; kept for retries of the store
+        HashingService.Digests digests;
+
+        Upload(
+            String id,
+            String filename,
+            long length,
+            Path staging,
+            HashingService.Hasher hasher
+        ) {
+            this.id = id;
+            this.filename = filename;
+            this.length = length;
+            this.staging = staging;
+            this.hasher = hasher;
+        }
+
+        UploadStatus status() {
+            return new UploadStatus(id, offset, length, null);
+        }
+    }
+
+    /** Create the staging directory and drop leftovers of a previous run. */
+    @PostConstruct
+    public void init() throws IOException {
+        Path uploads = Paths.get(uploadDir).toAbsolutePath().normalize();
+        stagingPath = stagingDir == null || stagingDir.isBlank()
+            ? uploads.resolveSibling(uploads.getFileName() + ".partial")
+            : Paths.get(stagingDir).toAbsolutePath().normalize();
+        Files.createDirectories(stagingPath);
+        try (
+            DirectoryStream<Path> leftovers = Files.newDirectoryStream(
+                stagingPath,
+                "*.part"
+            )
+        ) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+                logger.info("Removed stale partial upload {}", leftover);
+            }
+        }
+        logger.info("Using partial upload directory: {}", stagingPath);
+    }
+
+    /**
+     * Start an upload.
+     *
+     * @param filename original filename of the pack
+     * @param length   total size in bytes
+     * @return status with offset 0
+     * @throws IllegalArgumentException if the length is not positive
+     * @throws MaxUploadSizeExceededException if the length is over the limit
+     */
+    public UploadStatus create(String filename, long length)
+        throws IOException {
+        if (length <= 0) {
+            throw new IllegalArgumentException(
+                "Upload-Length must be positive: " + length
+            );
+        }
+        if (length > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
+        }
+        String id = UUID.randomUUID().toString().replace("-", "");
+        Path staging = Files.createFile(stagingPath.resolve(id + ".part"));
+        Upload upload = new Upload(
+            id,
+            filename,
+            length,
+            staging,
+            hashing.newHasher()
+        );
+        uploads.put(id, upload);
+        logger.info(
+            "Started resumable upload {} for {} ({} bytes)",
+            id,
+            filename,
+            length
+        );
+        return upload.status();
+    }
+
+    /**
+     * Current progress of an upload.
+     *
+     * @param id upload ID
+     * @return status
+     * @throws UploadNotFoundException if the upload does not exist
+     */
+    public UploadStatus status(String id) {
+        return find(id).status();
+    }
+
+    /**
+     * Append a chunk. Bytes are written and hashed as they arrive; if the
+     * body is cut off, everything received up to that point is kept and the
+     * exception is rethrown, so the client can resume from the new offset.
+     * The chunk that completes the upload validates and stores the pack.
+     *
+     * @param id      upload ID
+     * @param offset  offset the chunk starts at; must match the upload
+     * @param body    chunk content
+     * @param request servlet request, for logging client info
+     * @return status; {@code pack} is set once the upload is complete
+     * @throws UploadNotFoundException if the upload does not exist
+     * @throws UploadOffsetException if the offset is stale or another chunk
+     *         is still being written
+     * @throws IOException if reading the body or writing the file fails
+     */
+    public UploadStatus append(
+        String id,
+        long offset,
+        InputStream body,
+        HttpServletRequest request
+    ) throws IOException {
+        Upload upload = find(id);
+        if (!upload.lock.tryLock()) {
+            throw new UploadOffsetException(
+                "Another chunk of upload " + id + " is in progress",
+                upload.offset
+            );
+        }
+        try {
+            if (!uploads.containsKey(id)) {
+                throw new UploadNotFoundException(id);
+            }
+            if (offset != upload.offset) {
+                throw new UploadOffsetException(
+                    "Chunk offset " + offset + " does not match upload offset",
+                    upload.offset
+                );
+            }
+            upload.lastActivity = System.nanoTime();
+            writeChunk(upload, body);
+            upload.lastActivity = System.nanoTime();
+            if (upload.offset < upload.length) {
+                return upload.status();
+            }
+
+            if (upload.digests == null) {
+                upload.digests = upload.hasher.finish();
+            }
+            logger.info("Resumable upload {} complete, storing pack", id);
+            ResourcePack pack;
+            try {
+                pack = packService.storeStaged(
+                    upload.staging,
+                    upload.filename,
+                    upload.digests,
+                    request
+                );
+            } catch (InvalidPackException e) {
+                discard(upload);
+                throw e;
+            }
+            // Any other failure keeps the upload; repeating the last chunk
+            // request with an empty body retries the store
+            discard(upload);
+            return new UploadStatus(id, upload.offset, upload.length, pack);
+        } finally {
+            upload.lock.unlock();
+        }
+    }
+
+    /**
+     * Abort an upload and delete what was received.
+     *
+     * @param id upload ID
+     * @throws UploadNotFoundException if the upload does not exist
+     */
+    public void cancel(String id) throws IOException {
+        Upload upload = uploads.remove(id);
+        if (upload == null) {
+            throw new UploadNotFoundException(id);
+        }
+        upload.lock.lock();
+        try {
+            Files.deleteIfExists(upload.staging);
+        } finally {
+            upload.lock.unlock();
+        }
+        logger.info("Cancelled resumable upload {}", id);
+    }
+
+    /** Drop uploads that have not received a chunk for a while. */
+    @Scheduled(fixedDelayString = "${upload.chunked.cleanup-interval-ms:60000}")
+    public void expireIdle() {
+        long cutoff =
+            System.nanoTime() - TimeUnit.MINUTES.toNanos(expireAfterMinutes);
+        for (Upload upload : uploads.values()) {
+            if (upload.lastActivity - cutoff > 0 || !upload.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (uploads.remove(upload.id, upload)) {
+                    Files.deleteIfExists(upload.staging);
+                    logger.info(
+                        "Expired idle upload {} at {} of {} bytes",
+                        upload.id,
+                        upload.offset,
+                        upload.length
+                    );
+                }
+            } catch (IOException e) {
+                logger.warn(
+                    "Failed to delete partial upload {}: {}",
+                    upload.staging,
+                    e.getMessage()
+                );
+            } finally {
+                upload.lock.unlock();
+            }
+        }
+    }
+
+    private void discard(Upload upload) throws IOException {
+        uploads.remove(upload.id, upload);
+        Files.deleteIfExists(upload.staging);
+    }
+
+    /** Number of unfinished uploads. */
+    public int activeUploads() {
+        return uploads.size();
+    }
+
+    private Upload find(String id) {
+        Upload upload = uploads.get(id);
+        if (upload == null) {
+            throw new UploadNotFoundException(id);
+        }
+        return upload;
+    }
+
+    /**
+     * Copy at most the remaining bytes of the upload from the body. The
+     * offset and digest only advance for bytes that reached the file, and
+     * anything past the offset from an earlier failed write is cut off
+     * first, so file, offset and digest always agree.
+     */
+    private static void writeChunk(Upload upload, InputStream body)
+        throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(
+                upload.staging,
+                StandardOpenOption.WRITE
+            )
+        ) {
+            channel.truncate(upload.offset);
+            channel.position(upload.offset);
+            byte[] buffer = new byte[64 * 1024];
+            ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+            long remaining = upload.length - upload.offset;
+            while (remaining > 0) {
+                int n = body.read(
+                    buffer,
+                    0,
+                    (int) Math.min(buffer.length, remaining)
+                );
+                if (n == -1) {
+                    break;
+                }
+                wrapped.clear().limit(n);
+                while (wrapped.hasRemaining()) {
+                    channel.write(wrapped);
+                }
+                upload.hasher.update(buffer, 0, n);
+                upload.offset += n;
+                remaining -= n;
+            }
+        }
+    }
+}
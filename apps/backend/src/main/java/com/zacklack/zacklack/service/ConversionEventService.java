@@ -0,0 +1,216 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.dto.ConversionJobStatus;
+import com.zacklack.zacklack.model.ConversionJob;
+import com.zacklack.zacklack.repository.ConversionJobRepository;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes conversion job status changes to subscribers over Server-Sent
+ * Events, so one connection can watch many jobs instead of polling each.
+ * <p>
+ * {@link ConverterService} publishes every state it saves. Updates are
+ * coalesced per job (only the latest state is kept) and sent by a periodic
+ * flush, so a slow client never blocks a conversion thread. A stream ends on
+ * its own once all watched jobs are COMPLETED or FAILED.
+ * <p>
+ * With {@code conversion.queue.distributed} a watched job may run on another
+ * node, whose updates never reach this one; the open jobs of all
+ * subscribers are then also reloaded from the database every
+ * {@code conversion.events.poll-interval-ms}.
+ */
+@Service
+public class ConversionEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ConversionEventService.class
+    );
+
+    private final ConversionJobRepository jobRepo;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${conversion.events.max-ids:500}")
+    private int maxIds;
+
+    @Value("${conversion.events.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    @Value("${conversion.queue.distributed:false}")
+    private boolean distributed;
+
+    public ConversionEventService(ConversionJobRepository jobRepo) {
+        this.jobRepo = jobRepo;
+    }
+
+    /**
+     * Watch a set of jobs. The current state of every known job is sent
+     * first as a {@code status} event, followed by one {@code status} event
+     * per change. Unknown IDs are ignored; if none of the IDs exist the
+     * stream ends immediately.
+     *
+     * @param jobIds IDs of the jobs to watch
+     * @return emitter to return from the controller
+     * @throws IllegalArgumentException if no IDs or more than the configured
+     *                                  maximum are given
+     */
+    public SseEmitter subscribe(Collection<Long> jobIds) {
+        if (jobIds.isEmpty() || jobIds.size() > maxIds) {
+            throw new IllegalArgumentException(
+                "Between 1 and " + maxIds + " job IDs are required"
+            );
+        }
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        Subscriber sub = new Subscriber(emitter, Set.copyOf(jobIds));
+        emitter.onCompletion(() -> subscribers.remove(sub));
+        emitter.onTimeout(() -> subscribers.remove(sub));
+        emitter.onError(e -> subscribers.remove(sub));
+        // Register before loading the snapshot so no change is missed; a
+        // change published in between is newer than the snapshot and wins.
+        subscribers.add(sub);
+
+        List<ConversionJob> current = jobRepo.findAllById(sub.watched);
+        if (current.isEmpty()) {
+            subscribers.remove(sub);
+            emitter.complete();
+            return emitter;
+        }
+        synchronized (sub) {
+            for (ConversionJob job : current) {
+                ConversionJobStatus status = ConversionJobStatus.from(job);
+                if (sub.latest.putIfAbsent(job.getId(), status) == null) {
+                    sub.pending.put(job.getId(), status);
+                }
+            }
+            sub.open.addAll(sub.latest.keySet());
+        }
+        logger.debug(
+            "Status subscriber added for {} job(s), {} found",
+            sub.watched.size(),
+            current.size()
+        );
+        return emitter;
+    }
+
+    /**
+     * Record a job's new state for all subscribers watching it.
+     *
+     * @param job job as just saved
+     */
+    public void publish(ConversionJob job) {
+        if (subscribers.isEmpty() || job.getId() == null) {
+            return;
+        }
+        ConversionJobStatus status = ConversionJobStatus.from(job);
+        for (Subscriber sub : subscribers) {
+            if (sub.watched.contains(job.getId())) {
+                synchronized (sub) {
+                    // Polling finds most states already published locally
+                    if (status.equals(sub.latest.put(job.getId(), status))) {
+                        continue;
+                    }
+                    sub.pending.put(job.getId(), status);
+                    sub.open.add(job.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * In distributed mode, reload the unfinished jobs that someone watches
+     * and publish those whose state changed, wherever they ran.
+     */
+    @Scheduled(fixedDelayString = "${conversion.events.poll-interval-ms:1000}")
+    public void pollJobs() {
+        if (!distributed || subscribers.isEmpty()) {
+            return;
+        }
+        Set<Long> open = new HashSet<>();
+        for (Subscriber sub : subscribers) {
+            synchronized (sub) {
+                open.addAll(sub.open);
+            }
+        }
+        if (open.isEmpty()) {
+            return;
+        }
+        for (ConversionJob job : jobRepo.findAllById(open)) {
+            publish(job);
+        }
+    }
+
+    /**
+     * Send pending updates. Runs on the scheduler thread, which is the only
+     * thread that sends on these emitters.
+     */
+    @Scheduled(fixedDelayString = "${conversion.events.flush-interval-ms:250}")
+    public void flush() {
+        for (Subscriber sub : subscribers) {
+            List<ConversionJobStatus> batch;
+            boolean done;
+            synchronized (sub) {
+                if (sub.pending.isEmpty()) {
+                    continue;
+                }
+                batch = new ArrayList<>(sub.pending.values());
+                sub.pending.clear();
+                for (ConversionJobStatus status : batch) {
+                    if (status.isFinished()) {
+                        sub.open.remove(status.id());
+                    }
+                }
+                done = sub.open.isEmpty();
+            }
+            try {
+                for (ConversionJobStatus status : batch) {
+                    sub.emitter.send(
+                        SseEmitter.event()
+                            .name("status")
+                            .id(String.valueOf(status.id()))
+                            .data(status)
+                    );
+                }
+                if (done) {
+                    subscribers.remove(sub);
+                    sub.emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                subscribers.remove(sub);
+                sub.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        final Set<Long> watched;
+        // Latest unsent state per job, in arrival order
+        final Map<Long, ConversionJobStatus> pending = new LinkedHashMap<>();
+        // Watched jobs known to exist and not yet finished
+        final Set<Long> open = new HashSet<>();
+        // Last state recorded per job, sent or not
+        final Map<Long, ConversionJobStatus> latest = new HashMap<>();
+
+        Subscriber(SseEmitter emitter, Set<Long> watched) {
+            this.emitter = emitter;
+            this.watched = watched;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.model.ConversionJob;
+import com.zacklack.zacklack.repository.ConversionJobRepository;
+import com.zacklack.zacklack.util.LogRingBuffer;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live converter output per conversion job.
+ * <p>
+ * Each running job writes into a bounded {@link LogRingBuffer}; subscribers
+ * get new lines pushed over Server-Sent Events by a periodic flush. Once a
+ * job has finished, its buffer is dropped and late subscribers are served
+ * the persisted {@code consoleLog} instead.
+ * <p>
+ * A job that is unfinished but has no buffer here runs on another node (with
+ * {@code conversion.queue.distributed}) or was requeued. Its subscribers are
+ * kept open: the job is reloaded every {@code conversion.log.poll-interval-ms}
+ * and its stored log is sent once it has finished, or its live output as soon
+ * as this node picks it up.
+ */
+@Service
+public class ConversionLogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ConversionLogService.class
+    );
+
+    private final ConversionJobRepository jobRepo;
+
+    // Buffers of jobs that are queued or running on this node
+    private final Map<Long, LogRingBuffer> live = new ConcurrentHashMap<>();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${conversion.log.buffer-lines:2000}")
+    private int bufferLines;
+
+    @Value("${conversion.log.max-line-length:2000}")
+    private int maxLineLength;
+
+    @Value("${conversion.log.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    public ConversionLogService(ConversionJobRepository jobRepo) {
+        this.jobRepo = jobRepo;
+    }
+
+    /**
+     * Buffer that receives the console output of a job, created on first
+     * use. Open it when the job is queued so subscribers can attach before
+     * it starts running.
+     *
+     * @param jobId conversion job ID
+     * @return the job's live log buffer
+     */
+    public LogRingBuffer open(Long jobId) {
+        return live.computeIfAbsent(jobId, id ->
+            new LogRingBuffer(bufferLines, maxLineLength)
+        );
+    }
+
+    /**
+     * Mark a job's log as complete. Call after the final job state has been
+     * saved (or the job was discarded) so late subscribers find the
+     * persisted log; current subscribers receive the remaining lines on the
+     * next flush.
+     *
+     * @param jobId conversion job ID
+     */
+    public void close(Long jobId) {
+        LogRingBuffer buffer = live.remove(jobId);
+        if (buffer != null) {
+            buffer.finish();
+        }
+    }
+
+    /**
+     * Subscribe to a job's console output.
+     * <p>
+     * Sends {@code log} events with one line each, a {@code dropped} event
+     * when the subscriber fell behind the ring buffer, and a final
+     * {@code end} event carrying the job status, COMPLETED or FAILED. If the
+     * job is deleted meanwhile the stream ends without an {@code end} event.
+     *
+     * @param jobId conversion job ID
+     * @return emitter to return from the controller
+     * @throws RuntimeException if the job does not exist
+     */
+    public SseEmitter subscribe(Long jobId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        // Check for a live buffer before reading the job: buffers are closed
+        // only after the final state is saved, so a miss here means the
+        // stored log is complete or the job runs elsewhere.
+        LogRingBuffer buffer = live.get(jobId);
+        if (buffer == null) {
+            ConversionJob job = jobRepo
+                .findById(jobId)
+                .orElseThrow(() ->
+                    new RuntimeException("Job not found: " + jobId)
+                );
+            if (isFinal(job)) {
+                replayStored(emitter, job);
+                return emitter;
+            }
+        }
+
+        // Without a buffer, pollJobs() watches the job until it finishes
+        Subscriber sub = new Subscriber(jobId, emitter);
+        sub.buffer = buffer;
+        emitter.onCompletion(() -> subscribers.remove(sub));
+        emitter.onTimeout(() -> subscribers.remove(sub));
+        emitter.onError(e -> subscribers.remove(sub));
+        subscribers.add(sub);
+        logger.debug("Log subscriber added for job={}", jobId);
+        return emitter;
+    }
+
+    private static boolean isFinal(ConversionJob job) {
+        return (
+            "COMPLETED".equals(job.getStatus()) ||
+            "FAILED".equals(job.getStatus())
+        );
+    }
+
+    private void replayStored(SseEmitter emitter, ConversionJob job) {
+        try {
+            String log = job.getConsoleLog();
+            if (log != null && !log.isEmpty()) {
+                for (String line : log.split("\r?\n")) {
+                    emitter.send(SseEmitter.event().name("log").data(line));
+                }
+            }
+            emitter.send(SseEmitter.event().name("end").data(job.getStatus()));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Reload the jobs of subscribers that have no live buffer and record
+     * those that have finished or were deleted; {@link #flush()} then ends
+     * their streams.
+     */
+    @Scheduled(fixedDelayString = "${conversion.log.poll-interval-ms:1000}")
+    public void pollJobs() {
+        Set<Long> waiting = new HashSet<>();
+        for (Subscriber sub : subscribers) {
+            if (sub.buffer == null && sub.outcome == null) {
+                waiting.add(sub.jobId);
+            }
+        }
+        if (waiting.isEmpty()) {
+            return;
+        }
+        Map<Long, ConversionJob> found = new HashMap<>();
+        for (ConversionJob job : jobRepo.findAllById(waiting)) {
+            found.put(job.getId(), job);
+        }
+        for (Subscriber sub : subscribers) {
+            if (!waiting.contains(sub.jobId)) {
+                continue;
+            }
+            ConversionJob job = found.get(sub.jobId);
+            if (job == null) {
+                sub.outcome = Optional.empty();
+            } else if (isFinal(job)) {
+                sub.outcome = Optional.of(job);
+            }
+        }
+    }
+
+    /**
+     * Push buffered lines to all subscribers. Runs on the scheduler thread,
+     * which is the only thread that sends on registered emitters.
+     */
+    @Scheduled(fixedDelayString = "${conversion.log.flush-interval-ms:500}")
+    public void flush() {
+        for (Subscriber sub : subscribers) {
+            if (sub.buffer == null) {
+                flushWaiting(sub);
+                continue;
+            }
+            // Read the flag first: lines committed before finish() are then
+            // guaranteed to be in the slice below.
+            boolean finished = sub.buffer.isFinished();
+            LogRingBuffer.Slice slice = sub.buffer.since(sub.cursor);
+            try {
+                if (slice.dropped() > 0) {
+                    sub.emitter.send(
+                        SseEmitter.event().name("dropped").data(slice.dropped())
+                    );
+                }
+                for (String line : slice.lines()) {
+                    sub.emitter.send(SseEmitter.event().name("log").data(line));
+                }
+                sub.cursor = slice.next();
+                if (finished) {
+                    Optional<ConversionJob> job = jobRepo.findById(sub.jobId);
+                    if (job.isPresent() && !isFinal(job.get())) {
+                        // Requeued: wait for the next run, here or elsewhere
+                        sub.buffer = null;
+                        continue;
+                    }
+                    subscribers.remove(sub);
+                    if (job.isPresent()) {
+                        sub.emitter.send(
+                            SseEmitter.event()
+                                .name("end")
+                                .data(job.get().getStatus())
+                        );
+                    }
+                    sub.emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                subscribers.remove(sub);
+                sub.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void flushWaiting(Subscriber sub) {
+        // The job may have been picked up by this node since the last flush
+        LogRingBuffer buffer = live.get(sub.jobId);
+        if (buffer != null) {
+            sub.cursor = 0;
+            sub.buffer = buffer;
+            return;
+        }
+        Optional<ConversionJob> outcome = sub.outcome;
+        if (outcome == null) {
+            return;
+        }
+        subscribers.remove(sub);
+        if (outcome.isPresent()) {
+            replayStored(sub.emitter, outcome.get());
+        } else {
+            sub.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+
+        final Long jobId;
+        final SseEmitter emitter;
+        // Null while the job has no live buffer on this node
+        volatile LogRingBuffer buffer;
+        // Set by pollJobs() once a job without a buffer has finished; empty
+        // if it was deleted
+        volatile Optional<ConversionJob> outcome;
+        long cursor;
+
+        Subscriber(Long jobId, SseEmitter emitter) {
+            this.jobId = jobId;
+            this.emitter = emitter;
+        }
+    }
+}
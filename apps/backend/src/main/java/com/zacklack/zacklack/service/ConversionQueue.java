@@ -0,0 +1,265 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.model.ConversionJob;
+import com.zacklack.zacklack.repository.ConversionJobRepository;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The {@code conversion_jobs} table as a work queue shared by all backend
+ * nodes.
+ * <p>
+ * A job belongs to whichever node moves it from PENDING to IN_PROGRESS; the
+ * move is a conditional UPDATE, so two nodes can never both win. Batches are
+ * picked with {@code SELECT ... FOR UPDATE SKIP LOCKED}, which lets
+ * concurrent pollers take disjoint rows without waiting on each other.
+ * <p>
+ * A claim is a lease: the node renews {@code heartbeat_at} while the job
+ * runs, and once a lease is older than {@code conversion.lease.timeout-ms}
+ * the job is presumed abandoned (node crashed or restarted) and goes back
+ * to PENDING, or to FAILED after {@code conversion.lease.max-attempts}
+ * claims.
+ */
+@Service
+public class ConversionQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ConversionQueue.class
+    );
+
+    private final ConversionJobRepository jobs;
+    private final String nodeId;
+    private final Duration leaseTimeout;
+    private final int maxAttempts;
+
+    /**
+     * Jobs found with an expired lease by {@link #reapExpired()}.
+     *
+     * @param requeued jobs put back in the queue
+     * @param failed   jobs that used up their attempts
+     */
+    public record Reaped(List<Long> requeued, List<Long> failed) {}
+
+    /** Stores a job's result once its completion has been recorded. */
+    @FunctionalInterface
+    public interface ResultWriter {
+        /** @return ID of the pack holding the result */
+        Long write() throws IOException;
+    }
+
+    /**
+     * @param jobs           job repository
+     * @param nodeId         name recorded in {@code claimed_by}; empty means
+     *                       {@code <hostname>-<pid>}
+     * @param leaseTimeoutMs time without a heartbeat after which a running
+     *                       job is presumed abandoned
+     * @param maxAttempts    claims per job before an expired lease fails it
+     */
+    public ConversionQueue(
+        ConversionJobRepository jobs,
+        @Value("${conversion.queue.node-id:}") String nodeId,
+        @Value("${conversion.lease.timeout-ms:60000}") long leaseTimeoutMs,
+        @Value("${conversion.lease.max-attempts:3}") int maxAttempts
+    ) {
+        this.jobs = jobs;
+        this.leaseTimeout = Duration.ofMillis(leaseTimeoutMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.nodeId = nodeId == null || nodeId.isBlank()
+            ? defaultNodeId()
+            : nodeId;
+        logger.info("Conversion queue node id: {}", this.nodeId);
+    }
+
+    /** Identifier of this node in {@code claimed_by}. */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Claim one job for this node.
+     *
+     * @param jobId job to claim
+     * @return false if the job is gone or another node got it first
+     */
+    public boolean claim(Long jobId) {
+        return jobs.claim(jobId, nodeId, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Claim up to {@code limit} of the oldest PENDING jobs.
+     *
+     * @param limit maximum number of jobs to take
+     * @return IDs of the claimed jobs, oldest first
+     */
+    @Transactional
+    public List<Long> claimBatch(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> claimed = new ArrayList<>();
+        for (Long id : jobs.lockPendingIds(limit)) {
+            if (jobs.claim(id, nodeId, now) == 1) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Return a job this node claimed but cannot run to the queue.
+     *
+     * @param jobId job to release
+     */
+    public void release(Long jobId) {
+        jobs.release(jobId, nodeId);
+    }
+
+    /**
+     * Record the outcome of a job this node ran, if it still holds the job.
+     * For a COMPLETED job, {@code result} then stores the result and returns
+     * its pack ID, inside the same transaction: should it fail, the outcome
+     * is rolled back as well and the job stays IN_PROGRESS.
+     *
+     * @param job    the job, with status, error, log, timings and completion
+     *               time set
+     * @param result stores the result; null when there is none
+     * @return false if the lease was lost and nothing was recorded
+     */
+    @Transactional(rollbackFor = IOException.class)
+    public boolean complete(ConversionJob job, ResultWriter result)
+        throws IOException {
+        int updated = jobs.finish(
+            job.getId(),
+            nodeId,
+            job.getStatus(),
+            job.getErrorMessage(),
+            job.getConsoleLog(),
+            job.getStageTimings(),
+            job.getCompletedAt()
+        );
+        if (updated != 1) {
+            return false;
+        }
+        if (result != null) {
+            Long resultId = result.write();
+            jobs.recordResult(
+                job.getId(),
+                nodeId,
+                resultId,
+                job.getStageTimings()
+            );
+            job.setResultPackId(resultId);
+        }
+        return true;
+    }
+
+    /** Number of jobs waiting to be claimed, across all nodes. */
+    public long pendingCount() {
+        return jobs.countByStatus("PENDING");
+    }
+
+    /**
+     * Renew this node's leases.
+     *
+     * @param jobIds jobs this node is running
+     */
+    public void heartbeat(Collection<Long> jobIds) {
+        if (!jobIds.isEmpty()) {
+            jobs.heartbeat(jobIds, nodeId, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Whether this node still holds the lease on a job it is running. False
+     * once the lease expired and the job was requeued or failed.
+     */
+    public boolean holds(Long jobId) {
+        return jobs.existsByIdAndStatusAndClaimedBy(
+            jobId,
+            "IN_PROGRESS",
+            nodeId
+        );
+    }
+
+    /** Whether some node is running the job under a current lease. */
+    public boolean leaseActive(Long jobId) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(leaseTimeout);
+        return jobs
+            .findById(jobId)
+            .filter(j -> "IN_PROGRESS".equals(j.getStatus()))
+            .map(ConversionQueue::lastRenewal)
+            .filter(renewed -> !renewed.isBefore(cutoff))
+            .isPresent();
+    }
+
+    /** Lease timeout, {@code conversion.lease.timeout-ms}. */
+    public Duration leaseTimeout() {
+        return leaseTimeout;
+    }
+
+    /**
+     * Requeue or fail every job whose lease expired. Safe to run on all
+     * nodes at once: each job is moved by a conditional UPDATE, so only one
+     * reaper acts on it.
+     *
+     * @return the jobs this call moved
+     */
+    public Reaped reapExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(leaseTimeout);
+        List<Long> requeued = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (Long id : jobs.findExpiredLeases(cutoff)) {
+            if (jobs.requeueExpired(id, cutoff, maxAttempts) == 1) {
+                requeued.add(id);
+                logger.warn("Lease on job={} expired, requeued", id);
+            } else if (
+                jobs.failExpired(
+                    id,
+                    cutoff,
+                    "Conversion abandoned: lease expired after " +
+                    maxAttempts +
+                    " attempts",
+                    now
+                ) ==
+                1
+            ) {
+                failed.add(id);
+                logger.warn("Lease on job={} expired, attempts used up", id);
+            }
+        }
+        return new Reaped(requeued, failed);
+    }
+
+    private static LocalDateTime lastRenewal(ConversionJob job) {
+        if (job.getHeartbeatAt() != null) {
+            return job.getHeartbeatAt();
+        }
+        return job.getClaimedAt() != null
+            ? job.getClaimedAt()
+            : job.getCreatedAt();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        String id = host + "-" + ProcessHandle.current().pid();
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+}
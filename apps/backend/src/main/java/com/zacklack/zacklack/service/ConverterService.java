@@ -1,22 +1,58 @@
 package com.zacklack.zacklack.service;
 
-import com.agentdid127.resourcepack.Main;
+import com.zacklack.zacklack.exception.ConversionQueueFullException;
 import com.zacklack.zacklack.model.ConversionJob;
 import com.zacklack.zacklack.model.ResourcePack;
 import com.zacklack.zacklack.repository.ConversionJobRepository;
 import com.zacklack.zacklack.repository.ResourcePackRepository;
+import com.zacklack.zacklack.util.LogRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
 
 /**
  * Manages creation and execution of asynchronous conversion jobs.
+ * Conversions run on the bounded "conversionExecutor" (see ConversionExecutorConfig).
+ * <p>
+ * Every job is claimed through {@link ConversionQueue} before it runs. With
+ * {@code conversion.queue.distributed} the executor is no longer fed
+ * directly: new jobs stay PENDING in the database and each node polls for
+ * as many as it has free workers, so several nodes share the backlog.
+ * <p>
+ * Running jobs renew their lease periodically; a reaper requeues (or, past
+ * the retry cap, fails) jobs whose node stopped renewing, and working
+ * directories left behind by such jobs are removed on startup.
  */
 @Service
 public class ConverterService {
@@ -25,9 +61,38 @@ public class ConverterService {
         ConverterService.class
     );
 
+    // Working directory of a job: rpcv-<jobId>-<random>
+    private static final String TEMP_PREFIX = "rpcv-";
+    private static final Pattern JOB_TEMP_DIR = Pattern.compile(
+        "rpcv-(\\d+)-.*"
+    );
+
     private final ResourcePackRepository packRepo;
     private final ConversionJobRepository jobRepo;
     private final ResourcePackService packService;
+    private final TaskExecutor conversionExecutor;
+    private final PackConverter packConverter;
+    private final ConversionLogService logService;
+    private final ConversionEventService eventService;
+    private final PackChangeTracker changes;
+    private final PackMetrics metrics;
+    private final ConversionQueue queue;
+
+    // Jobs that are PENDING or IN_PROGRESS, keyed by what they will produce
+    private final Map<ConversionKey, InFlight> inFlight =
+        new ConcurrentHashMap<>();
+
+    // Input shared by the jobs of one submission, until each job picks it up
+    private final Map<Long, StagedInput> stagedInputs =
+        new ConcurrentHashMap<>();
+
+    // Job IDs whose runConversion is currently executing
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+
+    // Jobs this node claimed from the shared queue and has not finished
+    private final AtomicInteger localClaims = new AtomicInteger();
+
+    private final ReentrantLock pollLock = new ReentrantLock();
 
     @Value("${file.upload-dir}")
     private String uploadDir;
@@ -35,51 +100,718 @@ public class ConverterService {
     @Value("${conversion.default-source-version:1.19}")
     private String defaultSourceVersion;
 
+    @Value("${conversion.executor.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    @Value("${conversion.executor.workers:2}")
+    private int workers;
+
+    @Value("${conversion.queue.distributed:false}")
+    private boolean distributed;
+
+    @Value("${conversion.queue.max-pending:1000}")
+    private long maxPending;
+
+    @Value("${conversion.lease.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    private ScheduledExecutorService heartbeats;
+
     public ConverterService(
         ResourcePackRepository packRepo,
         ConversionJobRepository jobRepo,
-        ResourcePackService packService
+        ResourcePackService packService,
+        @Qualifier("conversionExecutor") TaskExecutor conversionExecutor,
+        PackConverter packConverter,
+        ConversionLogService logService,
+        ConversionEventService eventService,
+        PackChangeTracker changes,
+        PackMetrics metrics,
+        ConversionQueue queue
     ) {
         this.packRepo = packRepo;
         this.jobRepo = jobRepo;
         this.packService = packService;
+        this.conversionExecutor = conversionExecutor;
+        this.packConverter = packConverter;
+        this.logService = logService;
+        this.eventService = eventService;
+        this.changes = changes;
+        this.metrics = metrics;
+        this.queue = queue;
+    }
+
+    /**
+     * Create a job for a pack and queue it on the conversion executor.
+     * Jobs answered from the cache or attached to an in-flight conversion
+     * are returned without queueing anything.
+     *
+     * @param packId  ID of the original ResourcePack
+     * @param version target Minecraft version
+     * @return the job tracking this conversion
+     * @throws ConversionQueueFullException if the executor queue is full
+     */
+    public ConversionJob submit(Long packId, String version) {
+        return submitAll(packId, List.of(version)).get(0);
+    }
+
+    /**
+     * Convert a pack to several target versions as one batch.
+     * <p>
+     * The stored file is staged once and shared by all new jobs of the
+     * batch; the jobs themselves are queued individually so they spread
+     * across the conversion workers. Versions served from the cache or
+     * attached to in-flight jobs behave as in {@link #submit}, which also
+     * makes retrying a batch after a 429 safe: jobs queued by the first
+     * attempt are reused.
+     *
+     * @param packId   ID of the original ResourcePack
+     * @param versions target Minecraft versions; duplicates are ignored
+     * @return one job per distinct version, in request order
+     * @throws ConversionQueueFullException if the executor queue filled up,
+     *                                      or rejected a job this batch
+     *                                      attached to; jobs queued before
+     *                                      that keep running
+     */
+    public List<ConversionJob> submitAll(Long packId, List<String> versions) {
+        ResourcePack orig = loadPack(packId);
+        List<ConversionJob> jobs = new ArrayList<>();
+        List<JobRequest> fresh = new ArrayList<>();
+        List<InFlight> attached = new ArrayList<>();
+        try {
+            for (String version : new LinkedHashSet<>(versions)) {
+                JobRequest request = requestJob(orig, version);
+                jobs.add(request.job());
+                if (request.created()) {
+                    fresh.add(request);
+                } else if (request.entry() != null) {
+                    attached.add(request.entry());
+                }
+            }
+            if (distributed) {
+                enqueueAll(fresh);
+            } else if (!fresh.isEmpty()) {
+                dispatchAll(orig, fresh);
+            }
+        } finally {
+            // Jobs never handed over, e.g. after a database error
+            fresh
+                .stream()
+                .filter(request -> !request.entry().settled())
+                .forEach(request -> discard(request.job()));
+        }
+        // Settle our own jobs first so two batches never wait on each other
+        for (InFlight entry : attached) {
+            if (!entry.awaitQueued()) {
+                throw queueFull();
+            }
+        }
+        return jobs;
+    }
+
+    private void dispatchAll(ResourcePack orig, List<JobRequest> fresh) {
+        StagedInput input = new StagedInput(
+            Path.of(uploadDir, orig.getStorageFilename()),
+            fresh.size()
+        );
+        fresh.forEach(request ->
+            stagedInputs.put(request.job().getId(), input)
+        );
+        boolean full = false;
+        for (JobRequest request : fresh) {
+            // Once one job is rejected, drop the rest of the batch as well
+            if (full || !dispatch(request.job())) {
+                full = true;
+                discard(request.job());
+            } else {
+                request.entry().settle(true);
+            }
+        }
+        if (full) {
+            throw queueFull();
+        }
+    }
+
+    /**
+     * Leave new jobs PENDING for whichever node claims them first; the
+     * shared input is not staged since the job may run on another node.
+     */
+    private void enqueueAll(List<JobRequest> fresh) {
+        if (fresh.isEmpty()) {
+            return;
+        }
+        if (queue.pendingCount() > maxPending) {
+            fresh.forEach(request -> discard(request.job()));
+            throw queueFull();
+        }
+        fresh.forEach(request -> request.entry().settle(true));
+        // Start local workers right away instead of waiting for the poll
+        pollQueue();
+    }
+
+    private ConversionQueueFullException queueFull() {
+        return new ConversionQueueFullException(
+            "Conversion queue is full, please retry later",
+            retryAfterSeconds
+        );
+    }
+
+    /**
+     * Claim PENDING jobs from the shared queue for this node's idle workers.
+     * Only active with {@code conversion.queue.distributed}; a poll that
+     * overlaps another one on this node returns immediately.
+     */
+    @Scheduled(fixedDelayString = "${conversion.queue.poll-interval-ms:1000}")
+    public void pollQueue() {
+        if (!distributed || !pollLock.tryLock()) {
+            return;
+        }
+        try {
+            int free = workers - localClaims.get();
+            for (Long jobId : queue.claimBatch(free)) {
+                localClaims.incrementAndGet();
+                try {
+                    conversionExecutor.execute(() -> {
+                        try {
+                            runClaimed(jobId);
+                        } finally {
+                            localClaims.decrementAndGet();
+                        }
+                    });
+                } catch (TaskRejectedException ex) {
+                    localClaims.decrementAndGet();
+                    queue.release(jobId);
+                    logger.warn("Executor rejected claimed job={}", jobId);
+                }
+            }
+        } finally {
+            pollLock.unlock();
+        }
+    }
+
+    /**
+     * Renew leases on a thread of their own: the shared scheduler also runs
+     * the SSE flushes, whose blocking sends must not delay a heartbeat past
+     * the lease timeout.
+     */
+    @PostConstruct
+    public void startHeartbeats() {
+        heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("conversion-lease").daemon().factory()
+        );
+        heartbeats.scheduleWithFixedDelay(
+            this::renewLeases,
+            heartbeatIntervalMs,
+            heartbeatIntervalMs,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    @PreDestroy
+    public void stopHeartbeats() {
+        if (heartbeats != null) {
+            heartbeats.shutdownNow();
+        }
+    }
+
+    /** Renew the leases of the jobs running on this node. */
+    public void renewLeases() {
+        try {
+            queue.heartbeat(Set.copyOf(running));
+        } catch (RuntimeException e) {
+            // A thrown exception would cancel all further heartbeats
+            logger.warn("Could not renew conversion leases: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Requeue or fail jobs whose node stopped renewing their lease. Without
+     * the shared queue nobody polls for PENDING jobs, so requeued jobs are
+     * handed to this node's executor directly. Working directories of jobs
+     * that no longer hold a lease are then removed, including those of
+     * earlier attempts left behind by a crash and restart of this node.
+     */
+    @Scheduled(fixedDelayString = "${conversion.lease.reap-interval-ms:30000}")
+    public void reapExpiredLeases() {
+        ConversionQueue.Reaped reaped = queue.reapExpired();
+        for (Long jobId : reaped.requeued()) {
+            metrics.leaseExpired("requeued");
+            jobRepo.findById(jobId).ifPresent(eventService::publish);
+            if (!distributed) {
+                redispatch(jobId);
+            }
+        }
+        for (Long jobId : reaped.failed()) {
+            metrics.leaseExpired("failed");
+            jobRepo.findById(jobId).ifPresent(job -> {
+                eventService.publish(job);
+                finishInFlight(job);
+            });
+        }
+        if (distributed && !reaped.requeued().isEmpty()) {
+            pollQueue();
+        }
+        removeStaleTempDirs(false);
+    }
+
+    private void redispatch(Long jobId) {
+        try {
+            conversionExecutor.execute(() -> runConversion(jobId));
+        } catch (TaskRejectedException ex) {
+            jobRepo.findById(jobId).ifPresent(job -> {
+                job.setStatus("FAILED");
+                job.setErrorMessage("Conversion queue is full");
+                job.setCompletedAt(LocalDateTime.now());
+                saveJob(job);
+            });
+            logger.warn("Executor rejected requeued job={}", jobId);
+        }
+    }
+
+    /**
+     * Delete working directories left in the temp directory by conversions
+     * that never finished, typically because the process died. A job's
+     * directory is kept while some node holds a live lease on the job;
+     * staging directories, which carry no job ID, once they are older than
+     * the lease timeout.
+     */
+    @PostConstruct
+    public void removeStaleTempDirs() {
+        removeStaleTempDirs(true);
+    }
+
+    /**
+     * @param staging also remove old staging directories; only safe before
+     *                any job is queued, as a batch may wait longer than the
+     *                lease timeout for its last job
+     */
+    private void removeStaleTempDirs(boolean staging) {
+        Path tmp = Path.of(System.getProperty("java.io.tmpdir"));
+        Instant cutoff = Instant.now().minus(queue.leaseTimeout());
+        try (
+            DirectoryStream<Path> dirs = Files.newDirectoryStream(
+                tmp,
+                TEMP_PREFIX + "*"
+            )
+        ) {
+            for (Path dir : dirs) {
+                try {
+                    Matcher m = JOB_TEMP_DIR.matcher(
+                        dir.getFileName().toString()
+                    );
+                    boolean stale;
+                    if (m.matches()) {
+                        Long jobId = Long.valueOf(m.group(1));
+                        // A run that lost its lease removes its own directory
+                        stale = !running.contains(jobId) &&
+                        !queue.leaseActive(jobId);
+                    } else {
+                        stale = staging &&
+                        Files.getLastModifiedTime(dir)
+                            .toInstant()
+                            .isBefore(cutoff);
+                    }
+                    if (stale && FileSystemUtils.deleteRecursively(dir)) {
+                        logger.info(
+                            "Removed stale conversion directory {}",
+                            dir
+                        );
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.warn(
+                        "Could not remove {}: {}",
+                        dir,
+                        e.getMessage()
+                    );
+                }
+            }
+        } catch (IOException e) {
+            logger.warn(
+                "Could not scan {} for conversion directories: {}",
+                tmp,
+                e.getMessage()
+            );
+        }
     }
 
     /**
-     * Create a new ConversionJob in PENDING state.
+     * Hand a freshly created job to the executor.
+     *
+     * @return false if the executor rejected it
+     */
+    private boolean dispatch(ConversionJob job) {
+        Long jobId = job.getId();
+        try {
+            conversionExecutor.execute(() -> runConversion(jobId));
+            return true;
+        } catch (TaskRejectedException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Remove a job that could not be queued so it does not linger as
+     * PENDING. Requests that attached to it meanwhile are told it was
+     * rejected before the row goes away.
+     */
+    private void discard(ConversionJob job) {
+        Long jobId = job.getId();
+        InFlight entry = inFlight.get(
+            keyFor(job.getResourcePack(), job.getTargetVersion())
+        );
+        if (entry != null && jobId.equals(entry.job.getId())) {
+            entry.settle(false);
+        }
+        removeInFlight(job);
+        StagedInput input = stagedInputs.remove(jobId);
+        if (input != null) {
+            input.release();
+        }
+        jobRepo.deleteById(jobId);
+        logService.close(jobId);
+        logger.warn(
+            "Conversion queue full, rejected job={} for pack={}",
+            jobId,
+            job.getResourcePack().getId()
+        );
+    }
+
+    /**
+     * Create a ConversionJob for a pack, reusing earlier work where possible.
+     * <p>
+     * If the same source bytes were already converted from the same source
+     * version to {@code version}, the job is returned COMPLETED and points at
+     * the existing converted pack. If an identical conversion is currently
+     * pending or running, that job is returned instead of starting another.
+     * Otherwise a new job is saved in PENDING state.
      *
      * @param packId  ID of the original ResourcePack
      * @param version target Minecraft version
      * @return saved ConversionJob entity
+     * @throws ConversionQueueFullException if the in-flight job it would
+     *                                      attach to was rejected
      */
     public ConversionJob createJob(Long packId, String version) {
-        logger.debug("Creating job (pack={}, version={})", packId, version);
-        ResourcePack orig = packRepo
+        JobRequest request = requestJob(loadPack(packId), version);
+        if (request.created()) {
+            // Running it is up to the caller
+            request.entry().settle(true);
+        } else if (
+            request.entry() != null && !request.entry().awaitQueued()
+        ) {
+            throw queueFull();
+        }
+        return request.job();
+    }
+
+    private ResourcePack loadPack(Long packId) {
+        return packRepo
             .findById(packId)
             .orElseThrow(() ->
                 new RuntimeException("Pack not found: " + packId)
             );
+    }
+
+    private JobRequest requestJob(ResourcePack orig, String version) {
+        Long packId = orig.getId();
+        logger.debug("Creating job (pack={}, version={})", packId, version);
+        ConversionKey key = keyFor(orig, version);
+
+        ResourcePack cached = findCachedConversion(key);
+        if (cached != null) {
+            return new JobRequest(
+                completeFromCache(orig, version, cached),
+                false,
+                null
+            );
+        }
+
+        if (distributed) {
+            forgetIfFinished(key);
+        }
+        while (true) {
+            InFlight current = inFlight.get(key);
+            if (current != null) {
+                if (current.attach(orig)) {
+                    logger.info(
+                        "Attached pack={} version={} to in-flight job id={}",
+                        packId,
+                        version,
+                        current.job.getId()
+                    );
+                    return new JobRequest(current.job, false, current);
+                }
+                // Finished just now; its result is in the cache
+                inFlight.remove(key, current);
+                return requestJob(orig, version);
+            }
+
+            // Saved outside the map so a slow insert does not block other
+            // keys; a request that lost the race drops its job and attaches
+            ConversionJob fresh = new ConversionJob();
+            fresh.setResourcePack(orig);
+            fresh.setTargetVersion(version);
+            fresh.setStatus("PENDING");
+            ConversionJob job = saveJob(fresh);
+            InFlight entry = new InFlight(job);
+            if (inFlight.putIfAbsent(key, entry) != null) {
+                jobRepo.deleteById(job.getId());
+                continue;
+            }
+            // Let log subscribers attach while the job is still queued; a
+            // shared queue may hand the job to another node, which opens
+            // its own buffer when it starts
+            if (!distributed) {
+                logService.open(job.getId());
+            }
+            logger.info(
+                "Saved new job id={} for pack={}",
+                job.getId(),
+                packId
+            );
+            return new JobRequest(job, true, entry);
+        }
+    }
+
+    /**
+     * Drop an in-flight entry whose job another node has already finished;
+     * this node only clears entries for jobs it ran itself.
+     */
+    private void forgetIfFinished(ConversionKey key) {
+        InFlight tracked = inFlight.get(key);
+        if (tracked == null) {
+            return;
+        }
+        jobRepo
+            .findById(tracked.job.getId())
+            .filter(j -> !"PENDING".equals(j.getStatus()) &&
+                !"IN_PROGRESS".equals(j.getStatus())
+            )
+            .ifPresent(this::finishInFlight);
+    }
+
+    /** Stop coalescing onto a job without touching packs waiting on it. */
+    private void removeInFlight(ConversionJob job) {
+        inFlight.computeIfPresent(
+            keyFor(job.getResourcePack(), job.getTargetVersion()),
+            (k, e) -> job.getId().equals(e.job.getId()) ? null : e
+        );
+    }
+
+    /**
+     * Stop coalescing onto a finished job. If it completed, every other pack
+     * that attached to it gets its own converted row sharing the result,
+     * just as a later cache hit would.
+     */
+    private void finishInFlight(ConversionJob job) {
+        ConversionKey key = keyFor(
+            job.getResourcePack(),
+            job.getTargetVersion()
+        );
+        InFlight entry = inFlight.get(key);
+        if (entry == null || !job.getId().equals(entry.job.getId())) {
+            return;
+        }
+        List<ResourcePack> waiting = entry.close();
+        inFlight.remove(key, entry);
+        if (
+            waiting.isEmpty() ||
+            !"COMPLETED".equals(job.getStatus()) ||
+            job.getResultPackId() == null
+        ) {
+            return;
+        }
+        ResourcePack result = packRepo
+            .findById(job.getResultPackId())
+            .orElse(null);
+        if (result == null) {
+            return;
+        }
+        for (ResourcePack pack : waiting) {
+            try {
+                linkConversion(pack, job.getTargetVersion(), result);
+            } catch (RuntimeException ex) {
+                logger.warn(
+                    "Could not record conversion of job={} for pack={}: {}",
+                    job.getId(),
+                    pack.getId(),
+                    ex.getMessage()
+                );
+            }
+        }
+    }
+
+    /**
+     * Look up an earlier conversion of the same content between the same
+     * versions whose file is still on disk.
+     */
+    private ResourcePack findCachedConversion(ConversionKey key) {
+        if (key.sourceHash() == null) {
+            return null;
+        }
+        return packRepo
+            .findByConvertedTrueAndTargetVersionAndOriginalPackFileHash(
+                key.targetVersion(),
+                key.sourceHash()
+            )
+            .stream()
+            .filter(
+                c ->
+                    c.getOriginalPack() != null &&
+                    key
+                        .sourceVersion()
+                        .equals(sourceVersionFor(c.getOriginalPack()))
+            )
+            .filter(c ->
+                Files.exists(Path.of(uploadDir, c.getStorageFilename()))
+            )
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Record a conversion that is served from the cache. When the cached
+     * result belongs to a different original with identical bytes, a new
+     * converted row is added for {@code orig} that shares the stored file.
+     */
+    private ConversionJob completeFromCache(
+        ResourcePack orig,
+        String version,
+        ResourcePack cached
+    ) {
+        ResourcePack result = cached;
+        if (!orig.getId().equals(cached.getOriginalPack().getId())) {
+            result = linkConversion(orig, version, cached);
+        }
+
         ConversionJob job = new ConversionJob();
         job.setResourcePack(orig);
         job.setTargetVersion(version);
-        job.setStatus("PENDING");
-        ConversionJob saved = jobRepo.save(job);
-        logger.info("Saved new job id={} for pack={}", saved.getId(), packId);
+        job.setStatus("COMPLETED");
+        job.setCompletedAt(LocalDateTime.now());
+        job.setResultPackId(result.getId());
+        job.setConsoleLog(
+            "Served from conversion cache (converted pack id=" +
+            cached.getId() +
+            ")"
+        );
+        ConversionJob saved = saveJob(job);
+        logger.info(
+            "Conversion cache hit: pack={} version={} -> converted pack={} (job={})",
+            orig.getId(),
+            version,
+            result.getId(),
+            saved.getId()
+        );
         return saved;
     }
 
     /**
-     * Run the conversion in a background thread.
+     * Add a converted row for {@code orig} that shares the stored file of a
+     * conversion made from another original with identical bytes.
+     */
+    private ResourcePack linkConversion(
+        ResourcePack orig,
+        String version,
+        ResourcePack converted
+    ) {
+        ResourcePack copy = new ResourcePack(
+            orig.getOriginalFilename(),
+            converted.getStorageFilename(),
+            converted.getSize(),
+            converted.getFileHash(),
+            LocalDateTime.now()
+        );
+        copy.setSha256(converted.getSha256());
+        copy.setConverted(true);
+        copy.setOriginalPack(orig);
+        copy.setTargetVersion(version);
+        copy.setPackFormat(converted.getPackFormat());
+        copy.setMinecraftVersion(converted.getMinecraftVersion());
+        ResourcePack saved = packRepo.save(copy);
+        changes.changed();
+        return saved;
+    }
+
+    private ConversionKey keyFor(ResourcePack orig, String targetVersion) {
+        return new ConversionKey(
+            orig.getFileHash(),
+            sourceVersionFor(orig),
+            targetVersion
+        );
+    }
+
+    private String sourceVersionFor(ResourcePack orig) {
+        if (
+            orig.getMinecraftVersion() != null &&
+            !orig.getMinecraftVersion().isBlank()
+        ) {
+            return orig.getMinecraftVersion().split(" ")[0];
+        }
+        return defaultSourceVersion;
+    }
+
+    /**
+     * Claim the job and run the conversion on the calling thread;
+     * {@link #submit} schedules it on the conversion executor. Calls for a
+     * job that is no longer PENDING, including one claimed by another node,
+     * are ignored.
      *
      * @param jobId ID of the ConversionJob to execute
      */
-    @Async
     public void runConversion(Long jobId) {
+        if (!queue.claim(jobId)) {
+            StagedInput unused = stagedInputs.remove(jobId);
+            if (unused != null) {
+                unused.release();
+            }
+            logger.debug("Skipping job={}, not PENDING", jobId);
+            return;
+        }
+        runClaimed(jobId);
+    }
+
+    /**
+     * Run the conversion of a job this node has claimed, on the calling
+     * thread.
+     *
+     * @param jobId ID of a ConversionJob claimed through the queue
+     */
+    public void runClaimed(Long jobId) {
+        // Coalesced requests may ask to run the same job more than once
+        if (!running.add(jobId)) {
+            logger.debug("Job={} is already running", jobId);
+            return;
+        }
+        try {
+            ConversionJob job = jobRepo.findById(jobId).orElseThrow();
+            try {
+                execute(job);
+            } finally {
+                finishInFlight(job);
+                logService.close(jobId);
+            }
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private void execute(ConversionJob job) {
+        Long jobId = job.getId();
         logger.debug("Starting conversion for job={}", jobId);
-        ConversionJob job = jobRepo.findById(jobId).orElseThrow();
-        job.setStatus("IN_PROGRESS");
-        jobRepo.save(job);
+        long started = System.nanoTime();
+        StageClock clock = new StageClock();
+        if (job.getCreatedAt() != null) {
+            clock.record(
+                "queued",
+                Duration.between(job.getCreatedAt(), LocalDateTime.now())
+            );
+        }
+        // The claim already moved the row to IN_PROGRESS
+        eventService.publish(job);
 
+        Path tempDir = null;
+        ConversionQueue.ResultWriter writeResult = null;
         try {
             ResourcePack orig = job.getResourcePack();
             Path inputFile = Path.of(uploadDir, orig.getStorageFilename());
@@ -103,21 +835,25 @@ public class ConverterService {
             String outName = base + "_to_" + job.getTargetVersion() + ext;
             Path output = outDir.resolve(outName);
 
-            // ResourcePackConverter requires a directory input; copy the pack
-            // into a temporary directory for conversion.
-            Path tempDir = Files.createTempDirectory("rpcv-");
-            Path tempInput = tempDir.resolve(
-                Path.of(orig.getStorageFilename()).getFileName()
-            );
-            Files.copy(inputFile, tempInput);
-
-            String sourceVersion = defaultSourceVersion;
-            if (
-                orig.getMinecraftVersion() != null &&
-                !orig.getMinecraftVersion().isBlank()
-            ) {
-                sourceVersion = orig.getMinecraftVersion().split(" ")[0];
+            // ResourcePackConverter requires a directory input; place the
+            // pack (staged once per batch) into a temporary directory.
+            StagedInput input = stagedInputs.remove(jobId);
+            if (input == null) {
+                input = new StagedInput(inputFile, 1);
             }
+            Path tempInput;
+            try {
+                tempDir = Files.createTempDirectory(TEMP_PREFIX + jobId + "-");
+                tempInput = input.placeInto(
+                    tempDir,
+                    Path.of(orig.getStorageFilename()).getFileName().toString()
+                );
+            } finally {
+                input.release();
+            }
+            clock.lap("stage");
+
+            String sourceVersion = sourceVersionFor(orig);
 
             logger.info(
                 "Converting pack={} from version={} to version={} output={}",
@@ -126,104 +862,245 @@ public class ConverterService {
                 job.getTargetVersion(),
                 output
             );
-            java.io.ByteArrayOutputStream baos =
-                new java.io.ByteArrayOutputStream();
-            java.io.PrintStream ps = new java.io.PrintStream(baos);
-            java.io.PrintStream oldOut = System.out;
-            java.io.PrintStream oldErr = System.err;
-            System.setOut(ps);
-            System.setErr(ps);
+            // Output goes to a bounded ring buffer that log subscribers
+            // tail live; only its retained tail is persisted.
+            LogRingBuffer log = logService.open(jobId);
+            Path converted;
             try {
-                Main.main(
-                    new String[] {
-                        "-i",
-                        tempDir.toString(),
-                        "--from",
-                        sourceVersion,
-                        "--to",
-                        job.getTargetVersion(),
-                        "--debug",
-                        "true",
-                    }
+                converted = packConverter.convert(
+                    tempInput,
+                    sourceVersion,
+                    job.getTargetVersion(),
+                    log.outputStream()
                 );
             } finally {
-                System.setOut(oldOut);
-                System.setErr(oldErr);
-                job.setConsoleLog(
-                    baos.toString(java.nio.charset.StandardCharsets.UTF_8)
-                );
+                job.setConsoleLog(log.text());
             }
+            // Includes locating the converter's output file
+            clock.lap("convert");
 
-            // Locate the converted file produced by the converter. Because the
-            // input file in the temporary directory uses a generated name, the
-            // converter output will also use that name. We simply search the
-            // temp directory for the first file ending with "_converted" and
-            // the same extension.
-            Path converted = null;
-            try (java.util.stream.Stream<Path> files = Files.list(tempDir)) {
-                converted = files
-                    .filter(p ->
-                        p.getFileName().toString().endsWith("_converted" + ext)
-                    )
-                    .findFirst()
-                    .orElse(null);
-            }
-
-            if (converted != null && Files.exists(converted)) {
-                Files.move(
-                    converted,
-                    output,
-                    StandardCopyOption.REPLACE_EXISTING
-                );
-            } else {
-                throw new java.io.IOException(
-                    "Converted file not found in " + tempDir
+            // The result stays in this attempt's working directory until the
+            // job is recorded as completed under this node's lease, so a run
+            // whose job was requeued meanwhile never replaces the shared
+            // output or adds a pack row
+            HashingService.Digests digests = packService.computeDigests(
+                converted
+            );
+            clock.lap("hash");
+            ResourcePack conv = new ResourcePack(
+                orig.getOriginalFilename(),
+                orig.getId() + "/" + job.getTargetVersion() + "/" + outName,
+                digests.size(),
+                digests.sha1(),
+                LocalDateTime.now()
+            );
+            conv.setSha256(digests.sha256());
+            conv.setConverted(true);
+            conv.setOriginalPack(orig);
+            conv.setTargetVersion(job.getTargetVersion());
+            packService.populatePackMetadata(conv, converted);
+            clock.lap("metadata");
+
+            Path result = converted;
+            writeResult = () -> {
+                Files.move(result, output, StandardCopyOption.REPLACE_EXISTING);
+                clock.lap("move");
+                Long id = packRepo.save(conv).getId();
+                clock.lap("save");
+                job.setStageTimings(clock.timings());
+                return id;
+            };
+            job.setStatus("COMPLETED");
+        } catch (java.io.IOException | java.lang.RuntimeException ex) {
+            markFailed(job, ex);
+        }
+        boolean recorded;
+        try {
+            recorded = record(job, clock, writeResult);
+        } finally {
+            deleteTempDir(tempDir);
+        }
+        if (recorded) {
+            if ("COMPLETED".equals(job.getStatus())) {
+                changes.changed();
+                logger.info("Conversion job={} completed successfully", jobId);
+            }
+            eventService.publish(job);
+        } else {
+            // Requeued, failed or claimed again meanwhile; that outcome stands
+            job.setResultPackId(null);
+            logger.warn(
+                "Lease on job={} expired while it ran, {} result dropped",
+                jobId,
+                job.getStatus()
+            );
+        }
+        metrics.conversionFinished(
+            job.getResourcePack() != null
+                ? sourceVersionFor(job.getResourcePack())
+                : null,
+            job.getTargetVersion(),
+            job.getStatus(),
+            System.nanoTime() - started
+        );
+    }
+
+    /**
+     * Record a run's outcome through the queue, which only accepts it while
+     * this node holds the job. If storing a result fails, the job is
+     * recorded as FAILED instead.
+     *
+     * @return false if the outcome was dropped
+     */
+    private boolean record(
+        ConversionJob job,
+        StageClock clock,
+        ConversionQueue.ResultWriter writeResult
+    ) {
+        job.setCompletedAt(LocalDateTime.now());
+        // Stages reached before a failure are kept
+        job.setStageTimings(clock.timings());
+        try {
+            return queue.complete(
+                job,
+                "COMPLETED".equals(job.getStatus()) ? writeResult : null
+            );
+        } catch (java.io.IOException | java.lang.RuntimeException ex) {
+            if (!"COMPLETED".equals(job.getStatus())) {
+                logger.error(
+                    "Could not record outcome of job={}: {}",
+                    job.getId(),
+                    ex.getMessage()
                 );
+                return false;
             }
+            markFailed(job, ex);
+            job.setResultPackId(null);
+            return record(job, clock, null);
+        }
+    }
 
-            // Cleanup temporary directory
-            Files.deleteIfExists(tempInput);
-            Files.deleteIfExists(tempDir);
+    private static void markFailed(ConversionJob job, Exception ex) {
+        job.setStatus("FAILED");
+        job.setErrorMessage(ex.getMessage());
+        job.setCompletedAt(LocalDateTime.now());
+        logger.error(
+            "Conversion job={} failed: {}",
+            job.getId(),
+            ex.getMessage(),
+            ex
+        );
+    }
 
-            try {
-                ResourcePack conv = new ResourcePack(
-                    orig.getOriginalFilename(),
-                    orig.getId() + "/" + job.getTargetVersion() + "/" + outName,
-                    Files.size(output),
-                    packService.computeHash(output),
-                    LocalDateTime.now()
-                );
-                conv.setConverted(true);
-                conv.setOriginalPack(orig);
-                conv.setTargetVersion(job.getTargetVersion());
-                packService.populatePackMetadata(conv, output);
-                packRepo.save(conv);
+    private static void deleteTempDir(Path tempDir) {
+        if (tempDir == null) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(tempDir);
+        } catch (IOException e) {
+            logger.warn("Could not remove {}: {}", tempDir, e.getMessage());
+        }
+    }
 
-                job.setStatus("COMPLETED");
-                job.setCompletedAt(LocalDateTime.now());
-                logger.info("Conversion job={} completed successfully", jobId);
-            } catch (java.security.NoSuchAlgorithmException ex) {
-                job.setStatus("FAILED");
-                job.setErrorMessage("Hashing failed: " + ex.getMessage());
-                job.setCompletedAt(LocalDateTime.now());
-                logger.error(
-                    "Conversion job={} failed during hashing: {}",
-                    jobId,
-                    ex.getMessage(),
-                    ex
-                );
+    /** Save a job and notify status subscribers of its new state. */
+    private ConversionJob saveJob(ConversionJob job) {
+        ConversionJob saved = jobRepo.save(job);
+        eventService.publish(saved);
+        return saved;
+    }
+
+    /**
+     * Milliseconds spent in each stage of one conversion run. Each lap
+     * covers the time since the previous one.
+     */
+    private static final class StageClock {
+
+        private final Map<String, Long> timings = new LinkedHashMap<>();
+        private long mark = System.nanoTime();
+
+        void lap(String stage) {
+            long now = System.nanoTime();
+            timings.put(stage, TimeUnit.NANOSECONDS.toMillis(now - mark));
+            mark = now;
+        }
+
+        void record(String stage, Duration duration) {
+            timings.put(stage, Math.max(0, duration.toMillis()));
+        }
+
+        Map<String, Long> timings() {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    /**
+     * A PENDING or IN_PROGRESS job, plus the other originals with the same
+     * bytes that asked for the same conversion while it was under way.
+     * <p>
+     * A new job is visible here before its submitter knows whether the
+     * executor accepts it; requests that attach in that window wait for
+     * {@link #settle} so they never hand out a job that is about to be
+     * deleted.
+     */
+    private static final class InFlight {
+
+        final ConversionJob job;
+        private final Map<Long, ResourcePack> waiting = new LinkedHashMap<>();
+        private final CompletableFuture<Boolean> queued =
+            new CompletableFuture<>();
+        private boolean closed;
+
+        InFlight(ConversionJob job) {
+            this.job = job;
+        }
+
+        /** @return false if the job has finished and takes no more packs */
+        synchronized boolean attach(ResourcePack pack) {
+            if (closed) {
+                return false;
             }
-        } catch (java.io.IOException | java.lang.RuntimeException ex) {
-            job.setStatus("FAILED");
-            job.setErrorMessage(ex.getMessage());
-            job.setCompletedAt(LocalDateTime.now());
-            logger.error(
-                "Conversion job={} failed: {}",
-                jobId,
-                ex.getMessage(),
-                ex
-            );
+            if (!pack.getId().equals(job.getResourcePack().getId())) {
+                waiting.putIfAbsent(pack.getId(), pack);
+            }
+            return true;
+        }
+
+        /** Record whether the job was queued; only the first call counts. */
+        void settle(boolean accepted) {
+            queued.complete(accepted);
+        }
+
+        boolean settled() {
+            return queued.isDone();
+        }
+
+        /** Wait until the submitter has queued or rejected the job. */
+        boolean awaitQueued() {
+            return queued.join();
+        }
+
+        /** Take no more packs; returns those that attached so far. */
+        synchronized List<ResourcePack> close() {
+            closed = true;
+            return List.copyOf(waiting.values());
         }
-        jobRepo.save(job);
     }
+
+    /**
+     * A job returned by requestJob, whether it was created just now, and its
+     * in-flight entry (null for cache hits).
+     */
+    private record JobRequest(
+        ConversionJob job,
+        boolean created,
+        InFlight entry
+    ) {}
+
+    /** Identity of a conversion result: same bytes, same versions. */
+    private record ConversionKey(
+        String sourceHash,
+        String sourceVersion,
+        String targetVersion
+    ) {}
 }
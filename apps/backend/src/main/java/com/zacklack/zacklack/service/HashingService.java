@@ -0,0 +1,179 @@
+package com.zacklack.zacklack.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Computes the digests recorded for every stored pack in a single read:
+ * SHA-1, which Minecraft checks {@code resource-pack-sha1} against, and
+ * SHA-256 for integrity audits.
+ * <p>
+ * Digest instances and their copy buffer are kept in a small pool instead
+ * of per thread: with virtual threads every request runs on a fresh thread,
+ * so thread-locals would never be reused.
+ */
+@Service
+public class HashingService {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final BlockingQueue<Hasher> pool;
+
+    /**
+     * @param poolSize number of idle hashers kept for reuse; more can be in
+     *                 use at once, the surplus is simply dropped on release
+     */
+    public HashingService(@Value("${hashing.pool-size:16}") int poolSize) {
+        this.pool = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+    }
+
+    /**
+     * Digests of one piece of content, hex-encoded.
+     *
+     * @param size   number of bytes hashed
+     * @param sha1   SHA-1, 40 hex characters
+     * @param sha256 SHA-256, 64 hex characters
+     */
+    public record Digests(long size, String sha1, String sha256) {}
+
+    /**
+     * Running digests of a stream. Not thread-safe; callers that feed one
+     * from several requests must serialize access themselves.
+     */
+    public static final class Hasher {
+
+        private final MessageDigest sha1;
+        private final MessageDigest sha256;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private long size;
+
+        private Hasher() {
+            try {
+                sha1 = MessageDigest.getInstance("SHA-1");
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Digest not available", e);
+            }
+        }
+
+        /** Feed bytes into all digests. */
+        public void update(byte[] bytes, int offset, int length) {
+            sha1.update(bytes, offset, length);
+            sha256.update(bytes, offset, length);
+            size += length;
+        }
+
+        /** Number of bytes fed so far. */
+        public long size() {
+            return size;
+        }
+
+        /** Finish all digests and reset for the next stream. */
+        public Digests finish() {
+            Digests digests = new Digests(
+                size,
+                hex(sha1.digest()),
+                hex(sha256.digest())
+            );
+            size = 0;
+            return digests;
+        }
+
+        private void reset() {
+            sha1.reset();
+            sha256.reset();
+            size = 0;
+        }
+    }
+
+    /**
+     * A hasher owned by the caller, for content that arrives over several
+     * requests such as a resumable upload. It is not returned to the pool.
+     *
+     * @return new hasher
+     */
+    public Hasher newHasher() {
+        return new Hasher();
+    }
+
+    /**
+     * Hash a file on disk.
+     *
+     * @param file file to read
+     * @return digests of its content
+     * @throws IOException on I/O errors
+     */
+    public Digests hash(Path file) throws IOException {
+        Hasher hasher = acquire();
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(hasher.buffer)) != -1) {
+                hasher.update(hasher.buffer, 0, n);
+            }
+            return hasher.finish();
+        } finally {
+            release(hasher);
+        }
+    }
+
+    /**
+     * Copy a stream while hashing it. Neither stream is closed.
+     *
+     * @param in  source
+     * @param out destination
+     * @return digests of everything copied
+     * @throws IOException on read or write errors
+     */
+    public Digests copy(InputStream in, OutputStream out) throws IOException {
+        Hasher hasher = acquire();
+        try {
+            int n;
+            while ((n = in.read(hasher.buffer)) != -1) {
+                out.write(hasher.buffer, 0, n);
+                hasher.update(hasher.buffer, 0, n);
+            }
+            return hasher.finish();
+        } finally {
+            release(hasher);
+        }
+    }
+
+    /**
+     * Lowercase hex encoding of a digest.
+     *
+     * @param bytes digest bytes
+     * @return hex string, two characters per byte
+     */
+    public static String hex(byte[] bytes) {
+        return HEX.formatHex(bytes);
+    }
+
+    /** Number of idle hashers in the pool. */
+    int pooled() {
+        return pool.size();
+    }
+
+    private Hasher acquire() {
+        Hasher hasher = pool.poll();
+        return hasher != null ? hasher : new Hasher();
+    }
+
+    private void release(Hasher hasher) {
+        // Partially fed digests (after an exception) must not leak into the
+        // next stream
+        hasher.reset();
+        pool.offer(hasher);
+    }
+}
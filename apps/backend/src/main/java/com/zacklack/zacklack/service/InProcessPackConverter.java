@@ -0,0 +1,38 @@
+package com.zacklack.zacklack.service;
+
+import com.agentdid127.resourcepack.Main;
+import com.zacklack.zacklack.util.ConsoleCapture;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs ResourcePackConverter inside the web JVM (the default).
+ */
+@Service
+@ConditionalOnProperty(
+    name = "conversion.worker.enabled",
+    havingValue = "false",
+    matchIfMissing = true
+)
+public class InProcessPackConverter implements PackConverter {
+
+    @Override
+    public Path convert(
+        Path input,
+        String sourceVersion,
+        String targetVersion,
+        OutputStream console
+    ) throws IOException {
+        // Only this thread's output is captured, so concurrent
+        // conversions keep separate logs.
+        try (ConsoleCapture.Capture capture = ConsoleCapture.capture(console)) {
+            Main.main(
+                PackConverter.converterArgs(input, sourceVersion, targetVersion)
+            );
+        }
+        return PackConverter.locateOutput(input);
+    }
+}
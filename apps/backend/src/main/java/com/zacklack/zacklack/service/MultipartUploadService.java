@@ -0,0 +1,105 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
+import java.io.IOException;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Stores the {@code file} part of a {@code multipart/form-data} upload.
+ * <p>
+ * The part is read through the Servlet {@link Part} API. The container
+ * enforces the {@code spring.servlet.multipart.*} limits and spools large
+ * parts to {@code spring.servlet.multipart.location}. The spooled file is then
+ * moved into the upload directory by {@link ResourcePackService#storePart}
+ * instead of being copied, so a pack is written to disk only once when both
+ * directories are on the same file system. Requires lazy multipart
+ * resolution, so that parse failures reach this class (see
+ * {@code MultipartConfig}).
+ */
+@Service
+public class MultipartUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        MultipartUploadService.class
+    );
+
+    /** Name of the form field carrying the pack. */
+    public static final String FILE_FIELD = "file";
+
+    private final ResourcePackService packService;
+
+    public MultipartUploadService(ResourcePackService packService) {
+        this.packService = packService;
+    }
+
+    /**
+     * Store the {@code file} part of a multipart request. Other parts are
+     * ignored.
+     *
+     * @param request multipart request whose parts have not been read yet
+     * @return persisted ResourcePack entity
+     * @throws IllegalArgumentException if the body is not multipart or has no
+     *                                  {@code file} part
+     * @throws MaxUploadSizeExceededException if a size limit is exceeded
+     * @throws IOException if reading or storage fails
+     */
+    public ResourcePack receive(HttpServletRequest request)
+        throws IOException {
+        Part part;
+        try {
+            part = request.getPart(FILE_FIELD);
+        } catch (IllegalStateException e) {
+            if (exceedsLimit(e)) {
+                throw new MaxUploadSizeExceededException(-1, e);
+            }
+            throw e;
+        } catch (ServletException e) {
+            throw new IllegalArgumentException(
+                "Not a multipart request: " + e.getMessage(),
+                e
+            );
+        }
+        if (part == null || part.getSubmittedFileName() == null) {
+            throw new IllegalArgumentException(
+                "Multipart body has no '" + FILE_FIELD + "' part"
+            );
+        }
+        logger.debug(
+            "Storing part '{}' ({}, {} bytes)",
+            part.getSubmittedFileName(),
+            part.getContentType(),
+            part.getSize()
+        );
+        // The container deletes whatever is left of the part after the request
+        return packService.storePart(part, request);
+    }
+
+    /**
+     * The Servlet API has no dedicated exception for exceeded limits; Tomcat
+     * and Jetty throw an IllegalStateException saying so, which Spring's own
+     * multipart request detects the same way.
+     */
+    private static boolean exceedsLimit(IllegalStateException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            String msg = t.getMessage();
+            if (msg == null) {
+                continue;
+            }
+            msg = msg.toLowerCase(Locale.ROOT);
+            if (
+                msg.contains("exceed") &&
+                (msg.contains("size") || msg.contains("length"))
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,153 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.repository.ResourcePackRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version counter for pack data, used as the validator for conditional GETs
+ * on the pack metadata API.
+ * <p>
+ * Services call {@link #changed()} after an upload, a conversion result or
+ * a delete has been committed. The ETag combines the process start time with
+ * the counter so values never repeat across restarts. The counter is kept
+ * per JVM.
+ * <p>
+ * With {@code conversion.queue.distributed} other nodes change packs too, so
+ * the ETag is instead derived from the {@code resource_packs} table: its row
+ * count and highest ID, which every insert or delete changes. The table is
+ * read at most once per {@link #SHARED_REFRESH}, and right after a local
+ * change, by one request at a time; requests arriving meanwhile answer with
+ * the cached ETag rather than wait. The refresh is guarded by a
+ * {@link ReentrantLock}, not a monitor, so a virtual thread waiting on the
+ * database does not pin its carrier.
+ */
+@Component
+public class PackChangeTracker {
+
+    static final Duration SHARED_REFRESH = Duration.ofSeconds(1);
+
+    private final long epoch = System.currentTimeMillis();
+
+    // Null unless the ETag comes from the database
+    private final ResourcePackRepository packs;
+
+    private final AtomicReference<State> state = new AtomicReference<>(
+        new State(0, Instant.now().truncatedTo(ChronoUnit.SECONDS), null)
+    );
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile long checkedAt = Long.MIN_VALUE;
+
+    /** Tracker for a single node. */
+    public PackChangeTracker() {
+        this(null, false);
+    }
+
+    /**
+     * @param packs  pack repository, read when {@code shared}
+     * @param shared whether several nodes write pack data
+     */
+    @Autowired
+    public PackChangeTracker(
+        ResourcePackRepository packs,
+        @Value("${conversion.queue.distributed:false}") boolean shared
+    ) {
+        this.packs = shared ? packs : null;
+    }
+
+    /** Record that pack data has changed. */
+    public void changed() {
+        if (packs != null) {
+            // Re-read the table on the next request
+            checkedAt = Long.MIN_VALUE;
+            return;
+        }
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        state.updateAndGet(s -> new State(s.version() + 1, now, null));
+    }
+
+    /** Current version; increases with every change seen by this node. */
+    public long version() {
+        return current().version();
+    }
+
+    /**
+     * Time of the last change, in whole seconds as HTTP dates allow. With a
+     * shared table, the time this node first saw the change.
+     */
+    public Instant lastModified() {
+        return current().lastModified();
+    }
+
+    /** Strong ETag for the current version. */
+    public String etag() {
+        State s = current();
+        if (s.token() != null) {
+            return "\"db-" + s.token() + "\"";
+        }
+        return "\"" + Long.toString(epoch, 36) + "-" + s.version() + "\"";
+    }
+
+    private State current() {
+        if (packs != null) {
+            long now = System.nanoTime();
+            boolean due = due(now);
+            // Only the very first read waits for a refresher; later ones
+            // have a cached token to fall back on
+            if (due && state.get().token() == null) {
+                refreshLock.lock();
+                try {
+                    if (state.get().token() == null) {
+                        refresh(now);
+                    }
+                } finally {
+                    refreshLock.unlock();
+                }
+            } else if (due && refreshLock.tryLock()) {
+                try {
+                    // Another request may have refreshed in the meantime
+                    if (due(now)) {
+                        refresh(now);
+                    }
+                } finally {
+                    refreshLock.unlock();
+                }
+            }
+        }
+        return state.get();
+    }
+
+    private boolean due(long now) {
+        long checked = checkedAt;
+        return (
+            checked == Long.MIN_VALUE ||
+            now - checked >= SHARED_REFRESH.toNanos()
+        );
+    }
+
+    /** Read the table's token; callers hold {@link #refreshLock}. */
+    private void refresh(long now) {
+        // Set before the read, so a changed() during it forces another one
+        checkedAt = now;
+        String token =
+            Long.toString(packs.count(), 36) +
+            "-" +
+            Long.toString(packs.maxId(), 36);
+        Instant seen = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        state.updateAndGet(s ->
+            token.equals(s.token())
+                ? s
+                : new State(s.version() + 1, seen, token)
+        );
+    }
+
+    private record State(long version, Instant lastModified, String token) {}
+}
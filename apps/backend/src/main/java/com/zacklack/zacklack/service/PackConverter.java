@@ -0,0 +1,80 @@
+package com.zacklack.zacklack.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Runs ResourcePackConverter on a staged pack.
+ * <p>
+ * Implementations either call the converter inside this JVM
+ * ({@link InProcessPackConverter}) or hand the work to a pool of separate
+ * converter JVMs ({@link WorkerPoolPackConverter}).
+ */
+public interface PackConverter {
+    /**
+     * Convert a pack that sits alone in its own directory.
+     *
+     * @param input         pack file; its directory is handed to the converter
+     * @param sourceVersion Minecraft version the pack targets now
+     * @param targetVersion Minecraft version to convert to
+     * @param console       receives the converter's console output
+     * @return the converted file, next to {@code input}
+     * @throws IOException if the conversion fails or produces no output
+     */
+    Path convert(
+        Path input,
+        String sourceVersion,
+        String targetVersion,
+        OutputStream console
+    ) throws IOException;
+
+    /**
+     * Locate the file the converter produced for {@code input}. The converter
+     * writes {@code <name>_converted<ext>} into the input directory.
+     *
+     * @param input pack file that was converted
+     * @return converted file
+     * @throws IOException if no converted file exists
+     */
+    static Path locateOutput(Path input) throws IOException {
+        String name = input.getFileName().toString();
+        String ext = name.contains(".")
+            ? name.substring(name.lastIndexOf('.'))
+            : "";
+        try (Stream<Path> files = Files.list(input.getParent())) {
+            return files
+                .filter(p ->
+                    p.getFileName().toString().endsWith("_converted" + ext)
+                )
+                .findFirst()
+                .orElseThrow(() ->
+                    new IOException(
+                        "Converted file not found in " + input.getParent()
+                    )
+                );
+        }
+    }
+
+    /**
+     * Command-line arguments for {@code com.agentdid127.resourcepack.Main}.
+     */
+    static String[] converterArgs(
+        Path input,
+        String sourceVersion,
+        String targetVersion
+    ) {
+        return new String[] {
+            "-i",
+            input.getParent().toString(),
+            "--from",
+            sourceVersion,
+            "--to",
+            targetVersion,
+            "--debug",
+            "true",
+        };
+    }
+}
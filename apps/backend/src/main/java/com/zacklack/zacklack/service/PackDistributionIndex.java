@@ -0,0 +1,115 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import com.zacklack.zacklack.repository.ResourcePackRepository;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory id → (SHA-1, stored file) index used by Minecraft-facing
+ * lookups, so repeated hash and distribution requests skip the database.
+ * <p>
+ * A stored pack's hash and file never change, so an entry stays valid until
+ * the pack is deleted. Misses are loaded from the database once and new
+ * uploads are added as they are saved. A delete clears the whole index,
+ * because deleting an original also removes its conversions. Entries expire
+ * after {@code distribution.index.ttl-seconds} (0 = never) so deletes made
+ * on another backend node are picked up eventually.
+ */
+@Component
+public class PackDistributionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        PackDistributionIndex.class
+    );
+
+    private final ResourcePackRepository repository;
+
+    private final ConcurrentHashMap<Long, Slot> entries =
+        new ConcurrentHashMap<>();
+
+    @Value("${distribution.index.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    public PackDistributionIndex(ResourcePackRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Hash and stored file of a pack.
+     *
+     * @param id              pack ID
+     * @param fileHash        hex-encoded SHA-1
+     * @param storageFilename file name under the upload directory
+     */
+    public record Entry(Long id, String fileHash, String storageFilename) {}
+
+    private record Slot(Entry entry, long expiresAt) {}
+
+    /**
+     * Look up a pack, loading it from the database on a miss.
+     *
+     * @param id pack ID
+     * @return the entry, or empty if no such pack exists
+     */
+    public Optional<Entry> lookup(Long id) {
+        Slot slot = entries.get(id);
+        if (slot != null && !expired(slot)) {
+            return Optional.of(slot.entry());
+        }
+        logger.debug("Distribution index miss for pack id={}", id);
+        Optional<ResourcePack> pack = repository.findById(id);
+        if (pack.isEmpty()) {
+            entries.remove(id);
+            return Optional.empty();
+        }
+        return Optional.of(put(pack.get()));
+    }
+
+    /**
+     * Add or replace the entry for a freshly saved pack.
+     *
+     * @param pack persisted pack
+     * @return the indexed entry
+     */
+    public Entry put(ResourcePack pack) {
+        Entry entry = new Entry(
+            pack.getId(),
+            pack.getFileHash(),
+            pack.getStorageFilename()
+        );
+        // Placeholder rows without a hash are not worth remembering
+        if (entry.fileHash() != null && entry.id() != null) {
+            entries.put(entry.id(), new Slot(entry, expiresAt()));
+        }
+        return entry;
+    }
+
+    /** Drop every entry; called after a delete. */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /** Number of cached entries. */
+    public int size() {
+        return entries.size();
+    }
+
+    private long expiresAt() {
+        return ttlSeconds > 0
+            ? System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds)
+            : Long.MAX_VALUE;
+    }
+
+    private boolean expired(Slot slot) {
+        return (
+            slot.expiresAt() != Long.MAX_VALUE &&
+            System.nanoTime() - slot.expiresAt() > 0
+        );
+    }
+}
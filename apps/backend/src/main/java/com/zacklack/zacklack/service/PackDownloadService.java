@@ -0,0 +1,215 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves stored pack files with byte-range support.
+ * <p>
+ * A pack's file never changes once stored, so responses carry the SHA-1 as a
+ * strong ETag and are cacheable as immutable. The body is handed to Tomcat's
+ * sendfile when the connector supports it, in which case the kernel copies
+ * the file to the socket without it passing through the heap. Otherwise it
+ * is streamed with {@link FileChannel#transferTo} into the servlet output
+ * stream, which still goes through a heap buffer but never holds more than
+ * one chunk of the file.
+ */
+@Service
+public class PackDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        PackDownloadService.class
+    );
+
+    // Request attributes understood by Tomcat's NIO/NIO2 connectors
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${file.download.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${file.download.sendfile:true}")
+    private boolean sendfileEnabled;
+
+    /**
+     * Write a pack's file (or the requested range of it) to the response.
+     * Answers 304 when {@code If-None-Match} matches, 206 for a single
+     * satisfiable range, 416 for an unsatisfiable one and 404 when the file
+     * is missing. {@code If-Range} with a different ETag turns a range
+     * request into a full response; multiple ranges are answered in full as
+     * well.
+     *
+     * @param pack     pack to serve
+     * @param request  current request
+     * @param response response to write to
+     */
+    public void send(
+        ResourcePack pack,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        Path file = Path.of(uploadDir, pack.getStorageFilename());
+        if (!Files.isRegularFile(file)) {
+            logger.warn(
+                "File for pack id={} is missing: {}",
+                pack.getId(),
+                file
+            );
+            logger.info("Possible reason: The file was removed from the upload directory or file.upload-dir points to a different location.");
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length = Files.size(file);
+        String etag = "\"" + pack.getFileHash() + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(
+            HttpHeaders.CACHE_CONTROL,
+            "public, max-age=" + cacheMaxAgeSeconds + ", immutable"
+        );
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException(
+                            "Range not satisfiable: " + rangeHeader
+                        );
+                    }
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(
+                        HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + end + "/" + length
+                    );
+                }
+            } catch (IllegalArgumentException ex) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(
+                    HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE
+                );
+                return;
+            }
+        }
+        long count = end - start + 1;
+
+        response.setContentType("application/zip");
+        response.setContentLengthLong(count);
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename(downloadName(pack), StandardCharsets.UTF_8)
+                .build()
+                .toString()
+        );
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (
+            sendfileEnabled &&
+            Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+        ) {
+            // Tomcat writes the file after the servlet returns
+            request.setAttribute(
+                SENDFILE_FILENAME,
+                file.toAbsolutePath().toString()
+            );
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(file, start, count, response.getOutputStream());
+    }
+
+    private static void transfer(
+        Path file,
+        long start,
+        long count,
+        OutputStream out
+    ) throws IOException {
+        try (
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)
+        ) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    throw new IOException("Transfer stalled at " + position);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Original filename, with the target version for converted packs. */
+    private static String downloadName(ResourcePack pack) {
+        String name = pack.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            name = Path.of(pack.getStorageFilename()).getFileName().toString();
+        }
+        name = name.substring(name.lastIndexOf('/') + 1);
+        if (pack.isConverted() && pack.getTargetVersion() != null) {
+            int dot = name.lastIndexOf('.');
+            String base = dot > 0 ? name.substring(0, dot) : name;
+            String ext = dot > 0 ? name.substring(dot) : ".zip";
+            name = base + "_to_" + pack.getTargetVersion() + ext;
+        }
+        return name;
+    }
+}
@@ -0,0 +1,143 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.util.PackFormatUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters for the upload, hashing and conversion paths, published through
+ * Actuator ({@code /actuator/metrics/rph.*}).
+ * <p>
+ * Timers publish a percentile histogram and client-side p50/p95/p99 so tail
+ * latency is visible with and without a monitoring backend. Conversion
+ * timers are tagged by source and target version. The target is whatever
+ * the client asked for, so versions that {@code PackFormatUtil} does not
+ * know are tagged {@code other}; that keeps the number of timers bounded.
+ */
+@Component
+public class PackMetrics {
+
+    static final String UPLOAD_DURATION = "rph.upload.duration";
+    static final String UPLOAD_BYTES = "rph.upload.bytes";
+    static final String UPLOAD_VALIDATION_FAILURES =
+        "rph.upload.validation.failures";
+    static final String HASH_DURATION = "rph.hash.duration";
+    static final String HASH_BYTES = "rph.hash.bytes";
+    static final String CONVERSION_DURATION = "rph.conversion.duration";
+    static final String LEASE_EXPIRED = "rph.conversion.lease.expired";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary uploadBytes;
+    private final Counter validationFailures;
+    private final Timer hashDuration;
+    private final DistributionSummary hashBytes;
+
+    public PackMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.uploadBytes = DistributionSummary.builder(UPLOAD_BYTES)
+            .description("Size of stored uploads")
+            .baseUnit("bytes")
+            .register(registry);
+        this.validationFailures = Counter.builder(UPLOAD_VALIDATION_FAILURES)
+            .description("Uploads rejected as not a resource pack")
+            .register(registry);
+        this.hashDuration = latencyTimer(HASH_DURATION)
+            .description("Time to hash a stored file")
+            .register(registry);
+        this.hashBytes = DistributionSummary.builder(HASH_BYTES)
+            .description("Bytes hashed from stored files")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+
+    /**
+     * Record a finished upload attempt.
+     *
+     * @param kind    {@code stream} for single-request uploads, {@code staged}
+     *                for completed resumable uploads
+     * @param outcome {@code stored}, {@code invalid} or {@code error}
+     * @param nanos   time spent in the service
+     */
+    public void uploadFinished(String kind, String outcome, long nanos) {
+        latencyTimer(UPLOAD_DURATION)
+            .description("Time to store, validate and persist an upload")
+            .tag("kind", kind)
+            .tag("outcome", outcome)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Record the size of a stored upload. */
+    public void uploadStored(long bytes) {
+        uploadBytes.record(bytes);
+    }
+
+    /** Count an upload rejected by validation. */
+    public void validationFailed() {
+        validationFailures.increment();
+    }
+
+    /**
+     * Record hashing of a stored file; throughput is
+     * {@code rph.hash.bytes / rph.hash.duration}.
+     */
+    public void hashed(long bytes, long nanos) {
+        hashBytes.record(bytes);
+        hashDuration.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record a conversion from the moment a worker picked it up.
+     *
+     * @param sourceVersion version the pack was converted from
+     * @param targetVersion requested target version
+     * @param status        final job status
+     * @param nanos         time spent converting
+     */
+    public void conversionFinished(
+        String sourceVersion,
+        String targetVersion,
+        String status,
+        long nanos
+    ) {
+        latencyTimer(CONVERSION_DURATION)
+            .description("Time to convert a pack, per version pair")
+            .tag("source", versionTag(sourceVersion))
+            .tag("target", versionTag(targetVersion))
+            .tag("status", status != null ? status : "unknown")
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count a conversion whose lease expired.
+     *
+     * @param outcome {@code requeued} or {@code failed}
+     */
+    public void leaseExpired(String outcome) {
+        Counter.builder(LEASE_EXPIRED)
+            .description("Conversions abandoned by their node")
+            .tag("outcome", outcome)
+            .register(registry)
+            .increment();
+    }
+
+    private static String versionTag(String version) {
+        if (version == null) {
+            return "unknown";
+        }
+        return PackFormatUtil.isKnownVersion(version)
+            ? version.trim()
+            : "other";
+    }
+
+    private static Timer.Builder latencyTimer(String name) {
+        return Timer.builder(name)
+            .publishPercentileHistogram()
+            .publishPercentiles(0.5, 0.95, 0.99);
+    }
+}
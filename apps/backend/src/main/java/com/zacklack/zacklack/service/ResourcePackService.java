@@ -1,27 +1,46 @@
 package com.zacklack.zacklack.service;
 
+import com.zacklack.zacklack.dto.PackFilter;
+import com.zacklack.zacklack.dto.PackPage;
+import com.zacklack.zacklack.dto.PackSummary;
 import com.zacklack.zacklack.exception.InvalidPackException;
 import com.zacklack.zacklack.model.ResourcePack;
 import com.zacklack.zacklack.repository.ResourcePackRepository;
+import com.zacklack.zacklack.util.PackFormatUtil;
+import com.zacklack.zacklack.util.PackInspector;
+import com.zacklack.zacklack.util.PackInspector.PackInfo;
 import jakarta.annotation.PostConstruct;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
+import java.nio.file.StandardCopyOption;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.Formatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.UUID;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.ZipException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -35,15 +54,57 @@ public class ResourcePackService {
         ResourcePackService.class
     );
 
+    // Newest first; id breaks ties between packs uploaded in the same second
+    private static final Sort LISTING_ORDER = Sort.by(
+        Sort.Order.desc("uploadDate"),
+        Sort.Order.desc("id")
+    );
+
     private final ResourcePackRepository repository;
+    private final PackChangeTracker changes;
+    private final PackDistributionIndex distribution;
+    private final HashingService hashing;
+    private final PackMetrics metrics;
 
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    /**
+     * When enabled, uploads are stored once per distinct SHA-1 and rows with
+     * the same content share that file.
+     */
+    @Value("${file.content-addressed:false}")
+    private boolean contentAddressed;
+
+    @Value("${pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${pagination.max-limit:500}")
+    private int maxLimit;
+
     private Path uploadPath;
 
-    public ResourcePackService(ResourcePackRepository repository) {
+    // Serialises blob reuse against blob deletion for the same content hash
+    private final Lock[] blobLocks = new Lock[64];
+
+    {
+        for (int i = 0; i < blobLocks.length; i++) {
+            blobLocks[i] = new ReentrantLock();
+        }
+    }
+
+    public ResourcePackService(
+        ResourcePackRepository repository,
+        PackChangeTracker changes,
+        PackDistributionIndex distribution,
+        HashingService hashing,
+        PackMetrics metrics
+    ) {
         this.repository = repository;
+        this.changes = changes;
+        this.distribution = distribution;
+        this.hashing = hashing;
+        this.metrics = metrics;
     }
 
     /** Initialize the upload directory on application startup. */
@@ -77,6 +138,127 @@ public class ResourcePackService {
         return repository.findByConvertedFalse();
     }
 
+    /**
+     * One page of original packs, newest first.
+     * <p>
+     * Uses keyset pagination on {@code (upload_date, id)}: the cursor holds
+     * the last row of the previous page, so each page is an index range scan
+     * no matter how deep the client has paged.
+     *
+     * @param filter optional filters
+     * @param cursor value of {@link PackPage#nextCursor()} from the previous
+     *               page, or null for the first page
+     * @param limit  page size; null for the default, capped at the maximum
+     * @return the page, with each pack's conversions, and the cursor for the
+     *         next one; always two SQL statements
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public PackPage<PackSummary> findOriginals(
+        PackFilter filter,
+        String cursor,
+        Integer limit
+    ) {
+        int size = limit == null || limit < 1
+            ? defaultLimit
+            : Math.min(limit, maxLimit);
+        ScrollPosition position = decodeCursor(cursor);
+        Window<ResourcePack> window = repository.findBy(
+            originalsMatching(filter),
+            q -> q.sortBy(LISTING_ORDER).limit(size).scroll(position)
+        );
+        List<ResourcePack> items = window.getContent();
+        String next = window.hasNext() && !items.isEmpty()
+            ? encodeCursor(items.get(items.size() - 1))
+            : null;
+        logger.debug(
+            "Listed {} original pack(s), more={}",
+            items.size(),
+            next != null
+        );
+        return new PackPage<>(withConversions(items), next);
+    }
+
+    /**
+     * Summaries of the given originals with their conversions attached,
+     * loaded in one batched query instead of one lazy load per pack.
+     */
+    private List<PackSummary> withConversions(List<ResourcePack> originals) {
+        if (originals.isEmpty()) {
+            return List.of();
+        }
+        Collection<Long> ids = originals.stream().map(ResourcePack::getId).toList();
+        Map<Long, List<PackSummary>> byOriginal = repository
+            .findConversionSummaries(ids)
+            .stream()
+            .collect(Collectors.groupingBy(PackSummary::originalPackId));
+        return originals
+            .stream()
+            .map(rp ->
+                PackSummary.of(rp, byOriginal.getOrDefault(rp.getId(), List.of()))
+            )
+            .toList();
+    }
+
+    private static Specification<ResourcePack> originalsMatching(
+        PackFilter filter
+    ) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isFalse(root.get("converted")));
+            if (filter.packFormat() != null) {
+                predicates.add(
+                    cb.equal(root.get("packFormat"), filter.packFormat())
+                );
+            }
+            if (filter.mcVersion() != null && !filter.mcVersion().isBlank()) {
+                predicates.add(
+                    cb.equal(root.get("minecraftVersion"), filter.mcVersion())
+                );
+            }
+            if (filter.namePrefix() != null && !filter.namePrefix().isEmpty()) {
+                String escaped = filter
+                    .namePrefix()
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_");
+                predicates.add(
+                    cb.like(root.get("originalFilename"), escaped + "%", '\\')
+                );
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String encodeCursor(ResourcePack last) {
+        String raw = last.getUploadDate() + "|" + last.getId();
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ScrollPosition decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(
+                Base64.getUrlDecoder().decode(cursor),
+                StandardCharsets.UTF_8
+            );
+            int sep = raw.indexOf('|');
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put("uploadDate", LocalDateTime.parse(raw.substring(0, sep)));
+            keys.put("id", Long.valueOf(raw.substring(sep + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (
+            IllegalArgumentException
+            | IndexOutOfBoundsException
+            | DateTimeParseException ex
+        ) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
     /**
      * List conversions of a specific ResourcePack.
      *
@@ -88,6 +270,27 @@ public class ResourcePackService {
         return repository.findByOriginalPackId(originalId);
     }
 
+    /**
+     * Summary of one pack including its conversions.
+     *
+     * @param id database ID of the resource pack
+     * @return summary, or throws if not found
+     */
+    public PackSummary findSummary(Long id) {
+        return withConversions(List.of(findById(id))).get(0);
+    }
+
+    /**
+     * Summaries of the conversions of a pack, in one statement.
+     *
+     * @param originalId original pack ID
+     * @return converted packs, oldest first
+     */
+    public List<PackSummary> findConversionSummaries(Long originalId) {
+        logger.debug("Listing conversion summaries for pack id={}", originalId);
+        return repository.findConversionSummaries(List.of(originalId));
+    }
+
     /**
      * Retrieve a ResourcePack by ID.
      *
@@ -105,76 +308,78 @@ public class ResourcePackService {
 
     /**
      * Get the stored file SHA-1 hash for a pack.
+     * Served from the distribution index; only a miss reaches the database.
      *
      * @param id pack ID
      * @return hex-encoded SHA-1 hash
      */
     public String findHashById(Long id) {
-        ResourcePack rp = findById(id);
-        return rp.getFileHash();
+        return findDistribution(id).fileHash();
     }
 
     /**
-     * Ensure uploaded ZIP contains at least the root-level pack.mcmeta.
-     * Logs filename, size, IP, and user agent if invalid.
+     * Hash and stored file of a pack, from the in-memory distribution index.
      *
-     * @param file uploaded ZIP
-     * @param request HttpServletRequest for logging client info
-     * @throws IOException if reading fails
-     * @throws InvalidPackException if validation fails
+     * @param id pack ID
+     * @return index entry or throws if not found
      */
-    private void validateZip(MultipartFile file, HttpServletRequest request)
-        throws IOException {
-        try (ZipInputStream zis = new ZipInputStream(file.getInputStream())) {
-            ZipEntry entry;
-            boolean hasMeta = false;
-            while ((entry = zis.getNextEntry()) != null) {
-                if (
-                    !entry.isDirectory() &&
-                    "pack.mcmeta".equals(entry.getName())
-                ) {
-                    hasMeta = true;
-                    break;
-                }
-            }
-            if (!hasMeta) {
-                String clientIp = request != null
-                    ? request.getRemoteAddr()
-                    : "unknown";
-                String userAgent = request != null
-                    ? request.getHeader("User-Agent")
-                    : "unknown";
-                logger.warn(
-                    "Invalid resource pack upload attempt: pack.mcmeta missing | filename={} | size={} | IP={} | UA={}",
-                    file.getOriginalFilename(),
-                    file.getSize(),
-                    clientIp,
-                    userAgent
-                );
-                throw new InvalidPackException(
-                    "Invalid resource pack: pack.mcmeta not found in ZIP (filename=" +
-                    file.getOriginalFilename() +
-                    ", IP=" +
-                    clientIp +
-                    ", UA=" +
-                    userAgent +
-                    ")"
-                );
-            }
-        }
+    public PackDistributionIndex.Entry findDistribution(Long id) {
+        return distribution
+            .lookup(id)
+            .orElseThrow(() ->
+                new RuntimeException("ResourcePack not found: " + id)
+            );
     }
 
     /**
-     * Store the uploaded file to disk, compute its SHA-1 hash and persist metadata.
+     * Reject an upload that has no root-level pack.mcmeta.
+     * Logs filename, size, IP, and user agent before throwing.
+     *
+     * @param originalFilename client-side name of the upload
+     * @param size             upload size in bytes
+     * @param request          HttpServletRequest for logging client info
+     * @throws InvalidPackException always
+     */
+    private void rejectMissingMeta(
+        String originalFilename,
+        long size,
+        HttpServletRequest request
+    ) {
+        String clientIp = request != null ? request.getRemoteAddr() : "unknown";
+        String userAgent = request != null
+            ? request.getHeader("User-Agent")
+            : "unknown";
+        logger.warn(
+            "Invalid resource pack upload attempt: pack.mcmeta missing | filename={} | size={} | IP={} | UA={}",
+            originalFilename,
+            size,
+            clientIp,
+            userAgent
+        );
+        metrics.validationFailed();
+        throw new InvalidPackException(
+            "Invalid resource pack: pack.mcmeta not found in ZIP (filename=" +
+            originalFilename +
+            ", IP=" +
+            clientIp +
+            ", UA=" +
+            userAgent +
+            ")"
+        );
+    }
+
+    /**
+     * Store the uploaded file to disk, compute its hashes and persist metadata.
      *
      * @param file uploaded ZIP
      * @return persisted ResourcePack entity
      * @throws IOException if storage fails
      * @throws NoSuchAlgorithmException if SHA-1 unsupported (won’t happen)
+     * @throws InvalidPackException if the file is not a ZIP or has no pack.mcmeta
+     * @see #store(InputStream, String, HttpServletRequest)
      */
     public ResourcePack store(MultipartFile file, HttpServletRequest request)
         throws IOException, NoSuchAlgorithmException {
-        validateZip(file, request);
         logger.debug(
             "Storing file {} ({} bytes) | IP={} | UA={}",
             file.getOriginalFilename(),
@@ -182,47 +387,225 @@ public class ResourcePackService {
             request != null ? request.getRemoteAddr() : "unknown",
             request != null ? request.getHeader("User-Agent") : "unknown"
         );
+        try (InputStream in = file.getInputStream()) {
+            return store(in, file.getOriginalFilename(), request);
+        }
+    }
 
-        MessageDigest digest = MessageDigest.getInstance("SHA-1");
-        String originalFilename = file.getOriginalFilename();
-        String ext = (originalFilename != null &&
-                originalFilename.contains("."))
-            ? originalFilename.substring(originalFilename.lastIndexOf('.'))
-            : "";
-        String storageFilename = UUID.randomUUID() + ext;
-        Path target = uploadPath.resolve(storageFilename);
-
-        long totalBytes = 0;
-        byte[] buffer = new byte[1024 * 1024];
-        try (
-            DigestInputStream dis = new DigestInputStream(
-                file.getInputStream(),
-                digest
-            );
-            var os = Files.newOutputStream(target);
-        ) {
-            int bytesRead;
-            while ((bytesRead = dis.read(buffer)) != -1) {
-                os.write(buffer, 0, bytesRead);
-                totalBytes += bytesRead;
-            }
+    /**
+     * Store an upload read from a stream, compute its hashes and persist
+     * metadata.
+     * <p>
+     * The content is written to its final place in the upload directory in
+     * one pass while being hashed. Validation and pack.mcmeta parsing then go
+     * through {@link PackInspector}, which only reads the central directory
+     * and the descriptor entry. I/O errors from the source, such as a client
+     * disconnect, are rethrown unchanged after the partial file is removed.
+     *
+     * @param in               upload content; closed on return
+     * @param originalFilename client-side name of the upload
+     * @param request          HttpServletRequest for logging client info
+     * @return persisted ResourcePack entity
+     * @throws IOException if reading or storage fails
+     * @throws NoSuchAlgorithmException if SHA-1 unsupported (won’t happen)
+     * @throws InvalidPackException if the file is not a ZIP or has no pack.mcmeta
+     */
+    public ResourcePack store(
+        InputStream in,
+        String originalFilename,
+        HttpServletRequest request
+    ) throws IOException, NoSuchAlgorithmException {
+        long started = System.nanoTime();
+        Path target = uploadPath.resolve(
+            UUID.randomUUID() + extensionOf(originalFilename)
+        );
+
+        HashingService.Digests digests;
+        try (in; var os = Files.newOutputStream(target)) {
+            digests = hashing.copy(in, os);
         } catch (Exception e) {
+            Files.deleteIfExists(target);
+            metrics.uploadFinished("stream", "error", System.nanoTime() - started);
             logger.error(
                 "Failed to save file {}: {}",
                 originalFilename,
                 e.getMessage(),
                 e
             );
+            if (e instanceof IOException io) {
+                throw io;
+            }
             throw new IOException("Failed to save file", e);
         }
 
-        // Compute hash hex
-        String hashHex;
-        try (Formatter fmt = new Formatter()) {
-            for (byte b : digest.digest()) {
-                fmt.format("%02x", b);
-            }
-            hashHex = fmt.toString();
+        return persistUpload(
+            target,
+            originalFilename,
+            digests,
+            request,
+            "stream",
+            started
+        );
+    }
+
+    /**
+     * Store a multipart {@link Part}, compute its hashes and persist
+     * metadata.
+     * <p>
+     * {@link Part#write} moves the container's spooled file into the upload
+     * directory when both are on the same file system, and copies it
+     * otherwise; parts small enough to be held in memory are written out.
+     * The stored file is then hashed in one read and validated like any
+     * other upload.
+     *
+     * @param part    the uploaded file part
+     * @param request HttpServletRequest for logging client info
+     * @return persisted ResourcePack entity
+     * @throws IOException if writing, hashing or inspection fails
+     * @throws InvalidPackException if the file is not a ZIP or has no pack.mcmeta
+     */
+    public ResourcePack storePart(Part part, HttpServletRequest request)
+        throws IOException {
+        long started = System.nanoTime();
+        String originalFilename = part.getSubmittedFileName();
+        Path target = uploadPath.resolve(
+            UUID.randomUUID() + extensionOf(originalFilename)
+        );
+
+        HashingService.Digests digests;
+        try {
+            part.write(target.toString());
+            digests = hashing.hash(target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            metrics.uploadFinished("part", "error", System.nanoTime() - started);
+            logger.error(
+                "Failed to save file {}: {}",
+                originalFilename,
+                e.getMessage(),
+                e
+            );
+            throw e;
+        }
+
+        try {
+            return persistUpload(
+                target,
+                originalFilename,
+                digests,
+                request,
+                "part",
+                started
+            );
+        } catch (IOException | RuntimeException e) {
+            // Gone already if it failed validation or was adopted as a blob
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Persist a file that was assembled outside of {@link #store}, e.g. by a
+     * resumable upload. The file is linked (or copied, across disks) into
+     * the upload directory, then validated and recorded exactly like a
+     * multipart upload. The staged file is left alone, so a caller can
+     * retry after a failure and deletes it once the pack is stored.
+     *
+     * @param staged           complete upload
+     * @param originalFilename client-side name of the upload
+     * @param digests          hashes and size of the file, computed while it
+     *                         was written
+     * @param request          HttpServletRequest for logging client info
+     * @return persisted ResourcePack entity
+     * @throws IOException if the link, copy or inspection fails
+     * @throws InvalidPackException if the file is not a ZIP or has no pack.mcmeta
+     */
+    public ResourcePack storeStaged(
+        Path staged,
+        String originalFilename,
+        HashingService.Digests digests,
+        HttpServletRequest request
+    ) throws IOException {
+        long started = System.nanoTime();
+        Path target = uploadPath.resolve(
+            UUID.randomUUID() + extensionOf(originalFilename)
+        );
+        try {
+            Files.createLink(target, staged);
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug(
+                "Hard link not possible ({}), copying staged upload",
+                e.toString()
+            );
+            Files.copy(staged, target);
+        }
+        try {
+            return persistUpload(
+                target,
+                originalFilename,
+                digests,
+                request,
+                "staged",
+                started
+            );
+        } catch (IOException | RuntimeException e) {
+            // Gone already if it failed validation or was adopted as a blob
+            Files.deleteIfExists(target);
+            throw e;
+        }
+    }
+
+    /**
+     * Validate and save an upload, recording its outcome and duration.
+     *
+     * @param kind    upload path, used as metric tag
+     * @param started {@link System#nanoTime()} when the upload began
+     */
+    private ResourcePack persistUpload(
+        Path target,
+        String originalFilename,
+        HashingService.Digests digests,
+        HttpServletRequest request,
+        String kind,
+        long started
+    ) throws IOException {
+        String outcome = "error";
+        try {
+            ResourcePack saved = validateAndSave(
+                target,
+                originalFilename,
+                digests,
+                request
+            );
+            outcome = "stored";
+            metrics.uploadStored(digests.size());
+            return saved;
+        } catch (InvalidPackException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            metrics.uploadFinished(kind, outcome, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Validate a file written to the upload directory and save its row. The
+     * file is deleted if validation fails.
+     */
+    private ResourcePack validateAndSave(
+        Path target,
+        String originalFilename,
+        HashingService.Digests digests,
+        HttpServletRequest request
+    ) throws IOException {
+        long totalBytes = digests.size();
+        String hashHex = digests.sha1();
+        PackInfo info;
+        try {
+            info = inspectUpload(target, originalFilename, totalBytes, request);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
         }
 
         logger.info(
@@ -233,17 +616,123 @@ public class ResourcePackService {
         );
         ResourcePack rp = new ResourcePack(
             originalFilename,
-            storageFilename,
+            target.getFileName().toString(),
             totalBytes,
             hashHex,
             LocalDateTime.now()
         );
+        rp.setSha256(digests.sha256());
+
+        // pack_format and Minecraft version come from the inspection above
+        applyPackInfo(rp, info);
+        if (!contentAddressed) {
+            ResourcePack saved = repository.save(rp);
+            changes.changed();
+            distribution.put(saved);
+            logger.debug("Persisted ResourcePack id={}", saved.getId());
+            return saved;
+        }
+
+        Lock lock = blobLock(hashHex);
+        lock.lock();
+        try {
+            rp.setStorageFilename(
+                adoptBlob(target, hashHex, extensionOf(originalFilename))
+            );
+            ResourcePack saved = repository.save(rp);
+            changes.changed();
+            distribution.put(saved);
+            logger.debug(
+                "Persisted ResourcePack id={} blob={}",
+                saved.getId(),
+                saved.getStorageFilename()
+            );
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String extensionOf(String originalFilename) {
+        return (originalFilename != null && originalFilename.contains("."))
+            ? originalFilename.substring(originalFilename.lastIndexOf('.'))
+            : "";
+    }
+
+    /**
+     * Turn a freshly written upload into a content-addressed blob. If a row
+     * with the same hash already points at a file on disk, that file is
+     * reused and the upload is discarded; otherwise the upload is renamed to
+     * {@code <sha1><ext>}. Callers must hold {@link #blobLock(String)}.
+     *
+     * @param written file written from the upload
+     * @param hash    hex SHA-1 of the content
+     * @param ext     file extension including the dot, or empty
+     * @return storage filename the new row should reference
+     * @throws IOException if the rename fails
+     */
+    private String adoptBlob(Path written, String hash, String ext)
+        throws IOException {
+        var existing = repository.findFirstByFileHash(hash);
+        if (
+            existing.isPresent() &&
+            Files.exists(uploadPath.resolve(existing.get().getStorageFilename()))
+        ) {
+            String shared = existing.get().getStorageFilename();
+            Files.deleteIfExists(written);
+            logger.info("Deduplicated upload hash={} -> {}", hash, shared);
+            return shared;
+        }
+        String blobName = hash + ext;
+        Files.move(
+            written,
+            uploadPath.resolve(blobName),
+            StandardCopyOption.REPLACE_EXISTING
+        );
+        return blobName;
+    }
 
-        // Extract pack_format and Minecraft version
-        populatePackMetadata(rp, target);
-        ResourcePack saved = repository.save(rp);
-        logger.debug("Persisted ResourcePack id={}", saved.getId());
-        return saved;
+    private Lock blobLock(String hash) {
+        return blobLocks[Math.floorMod(hash.hashCode(), blobLocks.length)];
+    }
+
+    /**
+     * Validate a freshly stored upload: it must be a ZIP archive with a
+     * root-level pack.mcmeta.
+     *
+     * @param stored           file written from the upload
+     * @param originalFilename client-side name, for logging
+     * @param size             upload size, for logging
+     * @param request          HttpServletRequest for logging client info
+     * @return inspection result
+     * @throws IOException if reading fails
+     * @throws InvalidPackException if validation fails
+     */
+    private PackInfo inspectUpload(
+        Path stored,
+        String originalFilename,
+        long size,
+        HttpServletRequest request
+    ) throws IOException {
+        PackInfo info;
+        try {
+            info = PackInspector.inspect(stored);
+        } catch (ZipException e) {
+            info = new PackInfo(false, null);
+        }
+        if (!info.hasPackMeta()) {
+            rejectMissingMeta(originalFilename, size, request);
+        }
+        return info;
+    }
+
+    private static void applyPackInfo(ResourcePack rp, PackInfo info) {
+        if (info.packFormat() == null) {
+            return;
+        }
+        int fmt = info.packFormat();
+        rp.setPackFormat(fmt);
+        rp.setMinecraftVersion(PackFormatUtil.getVersionForFormat(fmt));
     }
 
     /**
@@ -253,27 +742,8 @@ public class ResourcePackService {
      * @param zipPath  path to the resource pack zip
      */
     public void populatePackMetadata(ResourcePack rp, Path zipPath) {
-        try (
-            ZipInputStream zis = new ZipInputStream(
-                Files.newInputStream(zipPath)
-            );
-        ) {
-            ZipEntry e;
-            while ((e = zis.getNextEntry()) != null) {
-                if (!e.isDirectory() && "pack.mcmeta".equals(e.getName())) {
-                    var mapper =
-                        new com.fasterxml.jackson.databind.ObjectMapper();
-                    var node = mapper.readTree(zis);
-                    int fmt = node.path("pack").path("pack_format").asInt();
-                    rp.setPackFormat(fmt);
-                    rp.setMinecraftVersion(
-                        com.zacklack.zacklack.util.PackFormatUtil.getVersionForFormat(
-                            fmt
-                        )
-                    );
-                    break;
-                }
-            }
+        try {
+            applyPackInfo(rp, PackInspector.inspect(zipPath));
         } catch (Exception ex) {
             logger.warn(
                 "Failed to parse pack.mcmeta for {}: {}",
@@ -284,18 +754,36 @@ public class ResourcePackService {
     }
 
     /**
-     * Delete both the DB entry and the file from disk.
+     * Delete the DB entry and, once no other row references it, the file
+     * from disk.
      *
      * @param id ResourcePack ID
      */
     public void delete(Long id) {
         ResourcePack rp = findById(id);
+        String storageFilename = rp.getStorageFilename();
 
-        if (
-            rp.getStorageFilename() != null &&
-            !rp.getStorageFilename().isEmpty()
-        ) {
-            Path filePath = uploadPath.resolve(rp.getStorageFilename());
+        Lock lock = blobLock(rp.getFileHash() != null ? rp.getFileHash() : "");
+        lock.lock();
+        try {
+            repository.deleteById(id);
+            changes.changed();
+            distribution.invalidateAll();
+            logger.info("Deleted ResourcePack id={}", id);
+
+            if (storageFilename == null || storageFilename.isEmpty()) {
+                return;
+            }
+            long remaining = repository.countByStorageFilename(storageFilename);
+            if (remaining > 0) {
+                logger.info(
+                    "Keeping file {} still referenced by {} pack(s)",
+                    storageFilename,
+                    remaining
+                );
+                return;
+            }
+            Path filePath = uploadPath.resolve(storageFilename);
             try {
                 Files.deleteIfExists(filePath);
                 logger.info("Deleted file: {}", filePath);
@@ -306,10 +794,9 @@ public class ResourcePackService {
                     e.getMessage()
                 );
             }
+        } finally {
+            lock.unlock();
         }
-
-        repository.deleteById(id);
-        logger.info("Deleted ResourcePack id={}", id);
     }
 
     /**
@@ -318,25 +805,22 @@ public class ResourcePackService {
      * @param file Path to file
      * @return hex-encoded SHA-1 digest
      * @throws IOException on I/O errors
-     * @throws NoSuchAlgorithmException should not happen
      */
-    public String computeHash(Path file)
-        throws IOException, NoSuchAlgorithmException {
-        MessageDigest digest = MessageDigest.getInstance("SHA-1");
-        try (
-            InputStream is = Files.newInputStream(file);
-            DigestInputStream dis = new DigestInputStream(is, digest);
-        ) {
-            byte[] buffer = new byte[1024 * 1024];
-            while (dis.read(buffer) != -1) {
-                /* consume */
-            }
-        }
-        try (Formatter fmt = new Formatter()) {
-            for (byte b : digest.digest()) {
-                fmt.format("%02x", b);
-            }
-            return fmt.toString();
-        }
+    public String computeHash(Path file) throws IOException {
+        return computeDigests(file).sha1();
+    }
+
+    /**
+     * Compute all recorded hashes of a file on disk in one read.
+     *
+     * @param file Path to file
+     * @return size, SHA-1 and SHA-256 of the file
+     * @throws IOException on I/O errors
+     */
+    public HashingService.Digests computeDigests(Path file) throws IOException {
+        long started = System.nanoTime();
+        HashingService.Digests digests = hashing.hash(file);
+        metrics.hashed(digests.size(), System.nanoTime() - started);
+        return digests;
     }
 }
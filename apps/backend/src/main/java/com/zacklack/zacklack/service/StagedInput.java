@@ -0,0 +1,99 @@
+package com.zacklack.zacklack.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One private copy of a pack's stored file, shared by the jobs of a
+ * conversion batch.
+ * <p>
+ * The first job to run copies the stored file into a staging directory;
+ * every job then gets a hard link to that copy in its own working directory
+ * (falling back to a copy where links are not supported). The converter only
+ * reads its input, so the link is safe to share. The staging directory is
+ * removed when the last job releases it.
+ * <p>
+ * Guarded by a {@link ReentrantLock} rather than {@code synchronized}: the
+ * first caller copies the file while holding it, and a virtual thread
+ * blocking inside a monitor would pin its carrier thread.
+ */
+final class StagedInput {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        StagedInput.class
+    );
+
+    private final Path source;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int references;
+    private Path stageDir;
+    private Path staged;
+
+    /**
+     * @param source     stored pack file
+     * @param references number of jobs that will call {@link #release()}
+     */
+    StagedInput(Path source, int references) {
+        this.source = source;
+        this.references = references;
+    }
+
+    /**
+     * Place the input into a job's working directory.
+     *
+     * @param jobDir   the job's working directory
+     * @param fileName name the input should have there
+     * @return path of the input inside {@code jobDir}
+     */
+    Path placeInto(Path jobDir, String fileName) throws IOException {
+        lock.lock();
+        try {
+            if (staged == null) {
+                stageDir = Files.createTempDirectory("rpcv-stage-");
+                staged = stageDir.resolve(fileName);
+                Files.copy(source, staged);
+            }
+            Path target = jobDir.resolve(fileName);
+            try {
+                Files.createLink(target, staged);
+            } catch (IOException | UnsupportedOperationException ex) {
+                logger.debug(
+                    "Hard link not possible ({}), copying staged input",
+                    ex.toString()
+                );
+                Files.copy(staged, target);
+            }
+            return target;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drop one reference; the last one deletes the staged copy. */
+    void release() {
+        lock.lock();
+        try {
+            if (--references > 0 || stageDir == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(staged);
+                Files.deleteIfExists(stageDir);
+            } catch (IOException ex) {
+                logger.warn(
+                    "Could not remove staged input {}: {}",
+                    stageDir,
+                    ex.getMessage()
+                );
+            }
+            staged = null;
+            stageDir = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
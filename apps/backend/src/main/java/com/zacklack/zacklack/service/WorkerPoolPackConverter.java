@@ -0,0 +1,361 @@
+package com.zacklack.zacklack.service;
+
+import com.zacklack.zacklack.worker.ConverterWorker;
+import com.zacklack.zacklack.worker.WorkerProtocol;
+import com.zacklack.zacklack.worker.WorkerProtocol.Message;
+import com.zacklack.zacklack.worker.WorkerProtocol.Request;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs ResourcePackConverter in a pool of pre-started worker JVMs.
+ * <p>
+ * Each worker is a separate {@link ConverterWorker} process with its own heap
+ * limit, talking to this service over its stdin/stdout pipes. A converter that
+ * crashes or runs out of memory only takes its worker down; the worker is
+ * replaced and the job fails. Workers are recycled after a fixed number of
+ * jobs so leaks inside the converter cannot accumulate.
+ */
+@Service
+@ConditionalOnProperty(name = "conversion.worker.enabled", havingValue = "true")
+public class WorkerPoolPackConverter implements PackConverter {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        WorkerPoolPackConverter.class
+    );
+
+    private static final String BOOT_LAUNCHER =
+        "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    // Number of worker JVMs; 0 means one per available core
+    @Value("${conversion.worker.pool-size:0}")
+    private int poolSize;
+
+    @Value("${conversion.worker.max-heap:512m}")
+    private String maxHeap;
+
+    // Jobs a worker runs before it is replaced by a fresh JVM
+    @Value("${conversion.worker.max-jobs:25}")
+    private int maxJobs;
+
+    @Value("${conversion.worker.timeout-seconds:600}")
+    private long timeoutSeconds;
+
+    // Classpath for workers; empty means the classpath of this JVM
+    @Value("${conversion.worker.classpath:}")
+    private String classpath;
+
+    private final ConcurrentLinkedDeque<WorkerProcess> idle =
+        new ConcurrentLinkedDeque<>();
+    private final List<WorkerProcess> all = new ArrayList<>();
+    private Semaphore permits;
+    private List<String> command;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (poolSize <= 0) {
+            poolSize = Runtime.getRuntime().availableProcessors();
+        }
+        permits = new Semaphore(poolSize, true);
+        command = buildCommand();
+        logger.info(
+            "Starting {} converter worker(s) with -Xmx{}: {}",
+            poolSize,
+            maxHeap,
+            command
+        );
+        for (int i = 0; i < poolSize; i++) {
+            idle.add(spawn());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        synchronized (all) {
+            all.forEach(WorkerProcess::destroy);
+            all.clear();
+        }
+        idle.clear();
+    }
+
+    @Override
+    public Path convert(
+        Path input,
+        String sourceVersion,
+        String targetVersion,
+        OutputStream console
+    ) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for a converter worker", e);
+        }
+        WorkerProcess worker = null;
+        try {
+            worker = idle.pollFirst();
+            if (worker == null || !worker.isAlive()) {
+                if (worker != null) {
+                    retire(worker);
+                }
+                worker = spawn();
+            }
+            return worker.run(
+                new Request(input.toString(), sourceVersion, targetVersion),
+                console,
+                timeoutSeconds
+            );
+        } finally {
+            if (worker != null) {
+                if (worker.broken || worker.jobs >= maxJobs) {
+                    retire(worker);
+                    // Keep the pool warm for the next job
+                    try {
+                        idle.addLast(spawn());
+                    } catch (IOException e) {
+                        logger.warn(
+                            "Could not start replacement converter worker: {}",
+                            e.getMessage()
+                        );
+                    }
+                } else {
+                    idle.addLast(worker);
+                }
+            }
+            permits.release();
+        }
+    }
+
+    private WorkerProcess spawn() throws IOException {
+        Process process = new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+        WorkerProcess worker = new WorkerProcess(process);
+        synchronized (all) {
+            all.add(worker);
+        }
+        logger.debug("Started converter worker pid={}", process.pid());
+        return worker;
+    }
+
+    private void retire(WorkerProcess worker) {
+        synchronized (all) {
+            all.remove(worker);
+        }
+        worker.destroy();
+        logger.debug(
+            "Retired converter worker pid={} after {} job(s)",
+            worker.process.pid(),
+            worker.jobs
+        );
+    }
+
+    /**
+     * Build the worker command line. When this JVM runs from a Spring Boot
+     * executable jar, application classes live under BOOT-INF and have to be
+     * loaded through the Boot launcher.
+     */
+    private List<String> buildCommand() throws IOException {
+        String cp = classpath == null || classpath.isBlank()
+            ? System.getProperty("java.class.path")
+            : classpath;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java")
+            .toString();
+        List<String> cmd = new ArrayList<>();
+        cmd.add(java);
+        cmd.add("-Xmx" + maxHeap);
+        cmd.add("-cp");
+        cmd.add(cp);
+        if (isBootJar(cp)) {
+            cmd.add("-Dloader.main=" + ConverterWorker.class.getName());
+            cmd.add(BOOT_LAUNCHER);
+        } else {
+            cmd.add(ConverterWorker.class.getName());
+        }
+        return cmd;
+    }
+
+    private static boolean isBootJar(String cp) throws IOException {
+        if (cp.contains(File.pathSeparator) || !cp.endsWith(".jar")) {
+            return false;
+        }
+        try (JarFile jar = new JarFile(cp)) {
+            return jar.getEntry("BOOT-INF/classes/") != null;
+        }
+    }
+
+    /** One worker JVM plus a thread that reads its replies. */
+    private static final class WorkerProcess {
+
+        private static final Message EOF = Message.of("eof");
+
+        private final Process process;
+        private final Writer stdin;
+        private final BlockingQueue<Message> replies =
+            new LinkedBlockingQueue<>();
+        private boolean ready;
+        // Set when the worker can no longer be trusted with another job
+        private boolean broken;
+        private int jobs;
+
+        WorkerProcess(Process process) {
+            this.process = process;
+            this.stdin = process.outputWriter(StandardCharsets.UTF_8);
+            Thread reader = new Thread(
+                this::readReplies,
+                "converter-worker-" + process.pid()
+            );
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        private void readReplies() {
+            try (
+                BufferedReader out = new BufferedReader(
+                    new InputStreamReader(
+                        process.getInputStream(),
+                        StandardCharsets.UTF_8
+                    )
+                )
+            ) {
+                String line;
+                while ((line = out.readLine()) != null) {
+                    try {
+                        replies.add(
+                            WorkerProtocol.MAPPER.readValue(line, Message.class)
+                        );
+                    } catch (IOException e) {
+                        // Not a protocol line (e.g. JVM warning); keep it
+                        replies.add(
+                            new Message(WorkerProtocol.LOG, line + "\n", null, null)
+                        );
+                    }
+                }
+            } catch (IOException e) {
+                // Process went away; reported below as EOF
+            }
+            replies.add(EOF);
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        Path run(Request request, OutputStream console, long timeoutSeconds)
+            throws IOException {
+            long deadline = System.nanoTime() +
+                TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            if (!ready) {
+                expect(WorkerProtocol.READY, console, deadline);
+                ready = true;
+            }
+            jobs++;
+            try {
+                stdin.write(WorkerProtocol.MAPPER.writeValueAsString(request));
+                stdin.write('\n');
+                stdin.flush();
+            } catch (IOException e) {
+                broken = true;
+                throw e;
+            }
+            Message done = expect(WorkerProtocol.DONE, console, deadline);
+            return Path.of(done.output());
+        }
+
+        /**
+         * Wait for a message of the given type, copying LOG messages to the
+         * console on the way.
+         */
+        private Message expect(String type, OutputStream console, long deadline)
+            throws IOException {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                Message msg;
+                try {
+                    msg = remaining > 0
+                        ? replies.poll(remaining, TimeUnit.NANOSECONDS)
+                        : null;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    broken = true;
+                    throw new IOException("Interrupted waiting for worker", e);
+                }
+                if (msg == null || msg == EOF) {
+                    broken = true;
+                }
+                if (msg == null) {
+                    throw new IOException(
+                        "Converter worker timed out (pid=" + process.pid() + ")"
+                    );
+                }
+                if (msg == EOF) {
+                    throw new IOException(
+                        "Converter worker exited unexpectedly (pid=" +
+                        process.pid() +
+                        ")"
+                    );
+                }
+                switch (msg.type()) {
+                    case WorkerProtocol.LOG -> {
+                        if (msg.text() != null) {
+                            console.write(
+                                msg.text().getBytes(StandardCharsets.UTF_8)
+                            );
+                        }
+                    }
+                    case WorkerProtocol.FAILED -> throw new IOException(
+                        "Conversion failed in worker: " + msg.error()
+                    );
+                    case WorkerProtocol.CRASHED -> {
+                        // The worker exits; replace it like a lost one
+                        broken = true;
+                        throw new IOException(
+                            "Converter worker crashed (pid=" +
+                            process.pid() +
+                            "): " +
+                            msg.error()
+                        );
+                    }
+                    default -> {
+                        if (msg.type().equals(type)) {
+                            return msg;
+                        }
+                    }
+                }
+            }
+        }
+
+        void destroy() {
+            process.destroy();
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.zacklack.zacklack.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Per-thread capture of {@code System.out} and {@code System.err}.
+ * <p>
+ * On first use the JVM-wide streams are replaced, once, by streams that look
+ * up a sink registered for the writing thread. Threads with a sink write into
+ * it; every other thread writes to the original console. Several conversions
+ * can therefore capture their output at the same time without swapping the
+ * global streams back and forth or seeing each other's lines.
+ * <p>
+ * The routing streams pick the destination before any locking and take no
+ * lock of their own: each sink gets its own {@link PrintStream}, so parallel
+ * conversions only ever contend on their own output.
+ * <p>
+ * Output from threads started by the captured code is not captured, because
+ * the sink is not inherited.
+ */
+public final class ConsoleCapture {
+
+    private static final ThreadLocal<PrintStream> SINK = new ThreadLocal<>();
+
+    private static boolean installed;
+
+    private ConsoleCapture() {}
+
+    /**
+     * Route this thread's console output to {@code sink} until the returned
+     * handle is closed. Captures may be nested; closing restores the outer one.
+     *
+     * @param sink destination for this thread's stdout and stderr bytes
+     * @return handle that ends the capture
+     */
+    public static Capture capture(OutputStream sink) {
+        install();
+        PrintStream previous = SINK.get();
+        PrintStream stream = new PrintStream(sink, true, StandardCharsets.UTF_8);
+        SINK.set(stream);
+        return () -> {
+            stream.flush();
+            if (previous == null) {
+                SINK.remove();
+            } else {
+                SINK.set(previous);
+            }
+        };
+    }
+
+    /** Replace System.out and System.err with routing streams, once. */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        System.setOut(new RoutingPrintStream(System.out));
+        System.setErr(new RoutingPrintStream(System.err));
+        installed = true;
+    }
+
+    /** Ends a capture started by {@link #capture(OutputStream)}. */
+    @FunctionalInterface
+    public interface Capture extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Forwards every call to the writing thread's sink stream or to the
+     * original console stream. None of the inherited implementations run, so
+     * the shared stream's own lock is never taken.
+     */
+    private static final class RoutingPrintStream extends PrintStream {
+
+        private final PrintStream fallback;
+
+        RoutingPrintStream(PrintStream fallback) {
+            super(fallback, true, StandardCharsets.UTF_8);
+            this.fallback = fallback;
+        }
+
+        private PrintStream target() {
+            PrintStream sink = SINK.get();
+            return sink != null ? sink : fallback;
+        }
+
+        @Override
+        public void write(int b) {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void writeBytes(byte[] b) {
+            target().writeBytes(b);
+        }
+
+        @Override
+        public void flush() {
+            target().flush();
+        }
+
+        @Override
+        public void close() {
+            // The console stays open; sinks are closed by their owners
+            target().flush();
+        }
+
+        @Override
+        public boolean checkError() {
+            return target().checkError();
+        }
+
+        @Override
+        public void print(boolean b) {
+            target().print(b);
+        }
+
+        @Override
+        public void print(char c) {
+            target().print(c);
+        }
+
+        @Override
+        public void print(int i) {
+            target().print(i);
+        }
+
+        @Override
+        public void print(long l) {
+            target().print(l);
+        }
+
+        @Override
+        public void print(float f) {
+            target().print(f);
+        }
+
+        @Override
+        public void print(double d) {
+            target().print(d);
+        }
+
+        @Override
+        public void print(char[] s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(String s) {
+            target().print(s);
+        }
+
+        @Override
+        public void print(Object obj) {
+            target().print(obj);
+        }
+
+        @Override
+        public void println() {
+            target().println();
+        }
+
+        @Override
+        public void println(boolean x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(int x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(long x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(float x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(double x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(char[] x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(String x) {
+            target().println(x);
+        }
+
+        @Override
+        public void println(Object x) {
+            target().println(x);
+        }
+
+        @Override
+        public PrintStream printf(String format, Object... args) {
+            target().printf(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream printf(Locale l, String format, Object... args) {
+            target().printf(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(String format, Object... args) {
+            target().format(format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream format(Locale l, String format, Object... args) {
+            target().format(l, format, args);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq) {
+            target().append(csq);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(CharSequence csq, int start, int end) {
+            target().append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public PrintStream append(char c) {
+            target().append(c);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.zacklack.zacklack.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded, line-oriented log buffer.
+ * <p>
+ * Keeps the most recent {@code capacity} lines, each cut at
+ * {@code maxLineLength} characters, so memory per log is fixed no matter how
+ * much is written. Every line gets a sequence number; readers keep a cursor
+ * and ask for what was added since, learning how many lines they missed if
+ * the buffer wrapped in between.
+ */
+public final class LogRingBuffer {
+
+    private final int capacity;
+    private final int maxLineLength;
+    private final ArrayDeque<String> lines = new ArrayDeque<>();
+    private final ByteArrayOutputStream partial = new ByteArrayOutputStream();
+    // Sequence number of the oldest retained line
+    private long firstSeq;
+    private boolean finished;
+
+    public LogRingBuffer(int capacity, int maxLineLength) {
+        this.capacity = capacity;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /** Stream view that appends UTF-8 bytes to this buffer. */
+    public OutputStream outputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                append(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                append(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * Append raw UTF-8 bytes; complete lines are committed at each newline.
+     */
+    public synchronized void append(byte[] b, int off, int len) {
+        int start = off;
+        for (int i = off; i < off + len; i++) {
+            if (b[i] == '\n') {
+                writePartial(b, start, i - start);
+                commitPartial();
+                start = i + 1;
+            }
+        }
+        writePartial(b, start, off + len - start);
+    }
+
+    private void writePartial(byte[] b, int off, int len) {
+        // Bytes past the line limit are dropped; 4 bytes per char is the
+        // UTF-8 worst case.
+        int room = maxLineLength * 4 - partial.size();
+        if (room > 0) {
+            partial.write(b, off, Math.min(len, room));
+        }
+    }
+
+    private void commitPartial() {
+        String line = partial.toString(StandardCharsets.UTF_8);
+        partial.reset();
+        if (line.endsWith("\r")) {
+            line = line.substring(0, line.length() - 1);
+        }
+        if (line.length() > maxLineLength) {
+            line = line.substring(0, maxLineLength) + "…";
+        }
+        lines.addLast(line);
+        if (lines.size() > capacity) {
+            lines.removeFirst();
+            firstSeq++;
+        }
+    }
+
+    /**
+     * Lines appended at or after {@code cursor}.
+     *
+     * @param cursor next sequence number the reader has not seen
+     * @return retained lines from the cursor on
+     */
+    public synchronized Slice since(long cursor) {
+        long next = firstSeq + lines.size();
+        long from = Math.max(cursor, firstSeq);
+        List<String> out = new ArrayList<>((int) Math.max(0, next - from));
+        long seq = firstSeq;
+        for (String line : lines) {
+            if (seq++ >= from) {
+                out.add(line);
+            }
+        }
+        return new Slice(out, from - Math.min(cursor, from), next);
+    }
+
+    /** All retained lines, newline-terminated, plus any unfinished line. */
+    public synchronized String text() {
+        StringBuilder sb = new StringBuilder();
+        if (firstSeq > 0) {
+            sb
+                .append("[... ")
+                .append(firstSeq)
+                .append(" earlier lines dropped ...]\n");
+        }
+        for (String line : lines) {
+            sb.append(line).append('\n');
+        }
+        sb.append(partial.toString(StandardCharsets.UTF_8));
+        return sb.toString();
+    }
+
+    /** Commit any unfinished line and mark the log complete. */
+    public synchronized void finish() {
+        if (partial.size() > 0) {
+            commitPartial();
+        }
+        finished = true;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Result of {@link #since(long)}.
+     *
+     * @param lines   lines from the cursor on
+     * @param dropped lines the reader missed because they were overwritten
+     * @param next    cursor to pass next time
+     */
+    public record Slice(List<String> lines, long dropped, long next) {}
+}
@@ -1,6 +1,8 @@
 package com.zacklack.zacklack.util;
 
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class PackFormatUtil {
 
@@ -69,7 +71,63 @@ public class PackFormatUtil {
             Map.entry(64, "1.21.7 - 1.21.8")
         );
 
+    // Release versions such as 1.20 or 1.20.4
+    private static final Pattern RELEASE = Pattern.compile(
+        "1\\.(\\d{1,2})(?:\\.(\\d{1,2}))?"
+    );
+
     public static String getVersionForFormat(int format) {
         return PACK_FORMAT_VERSION_MAP.getOrDefault(format, "Unknown");
     }
+
+    /**
+     * Whether a version string names a Minecraft version covered by
+     * {@link #PACK_FORMAT_VERSION_MAP}: a bound of one of its ranges, or a
+     * release version inside a range of releases.
+     *
+     * @param version version string, e.g. {@code 1.20.4} or {@code 24w33a}
+     * @return true if the version is known
+     */
+    public static boolean isKnownVersion(String version) {
+        if (version == null) {
+            return false;
+        }
+        String v = version.trim();
+        int[] release = release(v);
+        for (String range : PACK_FORMAT_VERSION_MAP.values()) {
+            String[] bounds = range.trim().split(" - ");
+            String low = bounds[0].trim();
+            String high = bounds[bounds.length - 1].trim();
+            if (v.equals(low) || v.equals(high)) {
+                return true;
+            }
+            int[] from = release(low);
+            int[] to = release(high);
+            if (
+                release != null &&
+                from != null &&
+                to != null &&
+                compare(from, release) <= 0 &&
+                compare(release, to) <= 0
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] release(String version) {
+        Matcher m = RELEASE.matcher(version);
+        if (!m.matches()) {
+            return null;
+        }
+        int patch = m.group(2) != null ? Integer.parseInt(m.group(2)) : 0;
+        return new int[] { Integer.parseInt(m.group(1)), patch };
+    }
+
+    private static int compare(int[] a, int[] b) {
+        return a[0] != b[0]
+            ? Integer.compare(a[0], b[0])
+            : Integer.compare(a[1], b[1]);
+    }
 }
@@ -0,0 +1,60 @@
+package com.zacklack.zacklack.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads resource pack metadata through the ZIP central directory.
+ * <p>
+ * {@link ZipFile} loads the directory at the end of the archive and seeks
+ * straight to the entries it is asked for, so the cost of finding
+ * pack.mcmeta does not depend on how many textures precede it.
+ */
+public final class PackInspector {
+
+    public static final String PACK_META = "pack.mcmeta";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private PackInspector() {}
+
+    /**
+     * Inspect a stored pack.
+     *
+     * @param zipPath path to the resource pack zip
+     * @return whether pack.mcmeta exists and, if readable, its pack_format
+     * @throws java.util.zip.ZipException if the file is not a ZIP archive
+     * @throws IOException on other I/O errors
+     */
+    public static PackInfo inspect(Path zipPath) throws IOException {
+        try (ZipFile zip = new ZipFile(zipPath.toFile())) {
+            ZipEntry meta = zip.getEntry(PACK_META);
+            if (meta == null || meta.isDirectory()) {
+                return new PackInfo(false, null);
+            }
+            try (InputStream is = zip.getInputStream(meta)) {
+                JsonNode node = MAPPER.readTree(is);
+                return new PackInfo(
+                    true,
+                    node.path("pack").path("pack_format").asInt()
+                );
+            } catch (IOException ex) {
+                // The descriptor exists but is not valid JSON
+                return new PackInfo(true, null);
+            }
+        }
+    }
+
+    /**
+     * Result of {@link #inspect(Path)}.
+     *
+     * @param hasPackMeta whether a root-level pack.mcmeta file exists
+     * @param packFormat  parsed pack_format, or null if unreadable
+     */
+    public record PackInfo(boolean hasPackMeta, Integer packFormat) {}
+}
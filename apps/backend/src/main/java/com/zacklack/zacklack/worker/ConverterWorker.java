@@ -0,0 +1,171 @@
+package com.zacklack.zacklack.worker;
+
+import com.agentdid127.resourcepack.Main;
+import com.zacklack.zacklack.service.PackConverter;
+import com.zacklack.zacklack.worker.WorkerProtocol.Message;
+import com.zacklack.zacklack.worker.WorkerProtocol.Request;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Entry point of an out-of-process converter worker.
+ * <p>
+ * Started by {@code WorkerPoolPackConverter}, it reads one
+ * {@link Request} per line from stdin, runs ResourcePackConverter and answers
+ * on stdout. Everything the converter prints is forwarded as LOG messages,
+ * so stdout carries nothing but protocol lines.
+ * <p>
+ * An {@link Error} may leave the heap or a thread stack in a bad state, so
+ * the worker reports it as CRASHED and exits instead of taking another job.
+ */
+public final class ConverterWorker {
+
+    private ConverterWorker() {}
+
+    public static void main(String[] args) throws IOException {
+        PrintStream protocol = new PrintStream(
+            new FileOutputStream(FileDescriptor.out),
+            true,
+            StandardCharsets.UTF_8
+        );
+        PrintStream console = new PrintStream(
+            new LogForwardingStream(protocol),
+            true,
+            StandardCharsets.UTF_8
+        );
+        System.setOut(console);
+        System.setErr(console);
+
+        BufferedReader in = new BufferedReader(
+            new InputStreamReader(System.in, StandardCharsets.UTF_8)
+        );
+        send(protocol, Message.of(WorkerProtocol.READY));
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Message reply;
+            try {
+                Request req = WorkerProtocol.MAPPER.readValue(
+                    line,
+                    Request.class
+                );
+                Path input = Path.of(req.input());
+                Main.main(
+                    PackConverter.converterArgs(
+                        input,
+                        req.sourceVersion(),
+                        req.targetVersion()
+                    )
+                );
+                console.flush();
+                Path output = PackConverter.locateOutput(input);
+                reply = new Message(
+                    WorkerProtocol.DONE,
+                    null,
+                    output.toString(),
+                    null
+                );
+            } catch (Exception ex) {
+                console.flush();
+                reply = new Message(
+                    WorkerProtocol.FAILED,
+                    null,
+                    null,
+                    ex.toString()
+                );
+            } catch (Error err) {
+                crash(protocol, console, err);
+                return;
+            }
+            send(protocol, reply);
+        }
+    }
+
+    /**
+     * Report an Error and end the process. Halts rather than exits: shutdown
+     * hooks are not worth running on a heap that may be exhausted, and the
+     * pool treats the exit like any other lost worker should the report
+     * itself fail.
+     */
+    private static void crash(
+        PrintStream protocol,
+        PrintStream console,
+        Error err
+    ) {
+        try {
+            console.flush();
+            send(
+                protocol,
+                new Message(WorkerProtocol.CRASHED, null, null, err.toString())
+            );
+        } catch (IOException | RuntimeException | Error ignored) {
+            // The pool sees the worker exit instead
+        } finally {
+            Runtime.getRuntime().halt(1);
+        }
+    }
+
+    private static void send(PrintStream protocol, Message message)
+        throws IOException {
+        String json = WorkerProtocol.MAPPER.writeValueAsString(message);
+        synchronized (protocol) {
+            protocol.println(json);
+        }
+    }
+
+    /** Turns console output into LOG messages, one per line. */
+    private static final class LogForwardingStream extends OutputStream {
+
+        private final PrintStream protocol;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        LogForwardingStream(PrintStream protocol) {
+            this.protocol = protocol;
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            line.write(b);
+            if (b == '\n') {
+                flush();
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len)
+            throws IOException {
+            int start = off;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    line.write(b, start, i + 1 - start);
+                    flush();
+                    start = i + 1;
+                }
+            }
+            line.write(b, start, off + len - start);
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (line.size() == 0) {
+                return;
+            }
+            String text = line.toString(StandardCharsets.UTF_8);
+            line.reset();
+            send(
+                protocol,
+                new Message(WorkerProtocol.LOG, text, null, null)
+            );
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.zacklack.zacklack.worker;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Messages exchanged between the backend and a {@link ConverterWorker}
+ * process. Each message is one line of JSON: requests go to the worker's
+ * stdin, replies come back on its stdout.
+ */
+public final class WorkerProtocol {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /** Worker has started and waits for a request. */
+    public static final String READY = "ready";
+    /** A chunk of converter console output. */
+    public static final String LOG = "log";
+    /** Conversion finished; {@code output} holds the converted file. */
+    public static final String DONE = "done";
+    /** Conversion failed; {@code error} holds the reason. */
+    public static final String FAILED = "failed";
+    /**
+     * The JVM threw an Error (e.g. OutOfMemoryError); {@code error} holds
+     * it. The worker exits right after sending this.
+     */
+    public static final String CRASHED = "crashed";
+
+    private WorkerProtocol() {}
+
+    /**
+     * Conversion request sent to a worker.
+     *
+     * @param input         pack file to convert
+     * @param sourceVersion Minecraft version the pack targets now
+     * @param targetVersion Minecraft version to convert to
+     */
+    public record Request(
+        String input,
+        String sourceVersion,
+        String targetVersion
+    ) {}
+
+    /**
+     * Message sent back by a worker.
+     *
+     * @param type   one of READY, LOG, DONE, FAILED, CRASHED
+     * @param text   console output for LOG
+     * @param output converted file path for DONE
+     * @param error  failure reason for FAILED and CRASHED
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Message(
+        String type,
+        String text,
+        String output,
+        String error
+    ) {
+        public static Message of(String type) {
+            return new Message(type, null, null, null);
+        }
+    }
+}
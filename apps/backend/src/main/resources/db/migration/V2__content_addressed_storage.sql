@@ -0,0 +1,11 @@
+-- V2__content_addressed_storage.sql
+-- Rows with identical content may share one stored file, so storage_filename
+-- is no longer unique. Hash lookups and reference counts need indexes.
+
+ALTER TABLE resource_packs DROP INDEX storage_filename;
+
+CREATE INDEX idx_resource_packs_file_hash
+    ON resource_packs (file_hash);
+
+CREATE INDEX idx_resource_packs_storage_filename
+    ON resource_packs (storage_filename);
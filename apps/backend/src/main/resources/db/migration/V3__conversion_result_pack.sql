@@ -0,0 +1,13 @@
+-- V3__conversion_result_pack.sql
+-- Link each conversion job to the converted pack it produced or reused.
+
+ALTER TABLE conversion_jobs
+    ADD COLUMN result_pack_id BIGINT NULL,
+    ADD CONSTRAINT fk_conversion_result_pack
+      FOREIGN KEY (result_pack_id)
+      REFERENCES resource_packs(id)
+      ON DELETE SET NULL;
+
+-- Conversion cache lookups: converted rows by target version
+CREATE INDEX idx_resource_packs_original_target
+    ON resource_packs (original_pack_id, target_version);
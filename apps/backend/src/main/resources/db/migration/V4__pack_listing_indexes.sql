@@ -0,0 +1,15 @@
+-- V4__pack_listing_indexes.sql
+-- Keyset pagination of original packs: newest first on (upload_date, id),
+-- optionally filtered by pack format, Minecraft version or name prefix.
+
+CREATE INDEX idx_resource_packs_listing
+    ON resource_packs (is_converted, upload_date, id);
+
+CREATE INDEX idx_resource_packs_format_listing
+    ON resource_packs (is_converted, pack_format, upload_date, id);
+
+CREATE INDEX idx_resource_packs_version_listing
+    ON resource_packs (is_converted, mc_version, upload_date, id);
+
+CREATE INDEX idx_resource_packs_name
+    ON resource_packs (is_converted, original_filename);
@@ -0,0 +1,6 @@
+-- V5__pack_sha256.sql
+-- SHA-256 of each stored pack, recorded next to the SHA-1 Minecraft uses.
+-- Rows stored before this column existed keep NULL.
+
+ALTER TABLE resource_packs
+    ADD COLUMN file_sha256 VARCHAR(64) NULL AFTER file_hash;
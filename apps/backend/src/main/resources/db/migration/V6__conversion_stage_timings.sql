@@ -0,0 +1,6 @@
+-- V6__conversion_stage_timings.sql
+-- Per-stage durations of a conversion run (milliseconds), stored as a JSON
+-- object such as {"queued":12,"stage":3,"convert":5400,"hash":41}.
+
+ALTER TABLE conversion_jobs
+    ADD COLUMN stage_timings VARCHAR(512) NULL;
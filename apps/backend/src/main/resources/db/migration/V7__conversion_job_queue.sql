@@ -0,0 +1,12 @@
+-- V7__conversion_job_queue.sql
+-- conversion_jobs doubles as a queue shared by all backend nodes: a node
+-- claims a PENDING row (SELECT ... FOR UPDATE SKIP LOCKED, then a
+-- conditional UPDATE) and records itself as the owner.
+
+ALTER TABLE conversion_jobs
+    ADD COLUMN claimed_by VARCHAR(64) NULL,
+    ADD COLUMN claimed_at TIMESTAMP NULL;
+
+-- Oldest PENDING jobs first
+CREATE INDEX idx_conversion_jobs_queue
+    ON conversion_jobs (status, created_at, id);
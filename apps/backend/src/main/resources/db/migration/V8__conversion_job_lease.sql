@@ -0,0 +1,8 @@
+-- V8__conversion_job_lease.sql
+-- A claimed job holds a lease that its node renews through heartbeat_at
+-- while the conversion runs. Jobs whose lease ran out go back to PENDING
+-- until attempts reaches the retry cap, then fail.
+
+ALTER TABLE conversion_jobs
+    ADD COLUMN heartbeat_at TIMESTAMP NULL,
+    ADD COLUMN attempts INT NOT NULL DEFAULT 0;
@@ -0,0 +1,65 @@
+package com.zacklack.zacklack.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class ConversionExecutorConfigTest {
+
+    private static Thread runOn(ThreadPoolTaskExecutor executor) throws Exception {
+        executor.initialize();
+        try {
+            return CompletableFuture.supplyAsync(Thread::currentThread, executor)
+                .get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void platformThreadsByDefault() throws Exception {
+        ThreadPoolTaskExecutor executor = new ConversionExecutorConfig().conversionExecutor(2, 5, false);
+        assertEquals(5, executor.getQueueCapacity());
+        Thread worker = runOn(executor);
+        assertFalse(worker.isVirtual());
+        assertTrue(worker.getName().startsWith("conversion-"));
+    }
+
+    @Test
+    void virtualThreadsKeepTheBoundedPool() throws Exception {
+        ThreadPoolTaskExecutor executor = new ConversionExecutorConfig().conversionExecutor(2, 5, true);
+        assertEquals(2, executor.getMaxPoolSize());
+        Thread worker = runOn(executor);
+        assertTrue(worker.isVirtual());
+        assertTrue(worker.getName().startsWith("conversion-"));
+    }
+
+    @Test
+    void gaugesFollowTheExecutor() throws Exception {
+        ConversionExecutorConfig config = new ConversionExecutorConfig();
+        ThreadPoolTaskExecutor executor = config.conversionExecutor(1, 5, false);
+        executor.initialize();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.conversionExecutorMetrics(executor).bindTo(registry);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        try {
+            CompletableFuture<Void> started = new CompletableFuture<>();
+            executor.execute(() -> {
+                started.complete(null);
+                release.join();
+            });
+            executor.execute(release::join);
+            started.get(5, TimeUnit.SECONDS);
+
+            assertEquals(1.0, registry.get("rph.conversion.in-progress").gauge().value());
+            assertEquals(1.0, registry.get("rph.conversion.queue.depth").gauge().value());
+        } finally {
+            release.complete(null);
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.zacklack.zacklack.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.zacklack.zacklack.exception.UploadNotFoundException;
+import com.zacklack.zacklack.exception.UploadOffsetException;
+import com.zacklack.zacklack.model.ResourcePack;
+import com.zacklack.zacklack.service.ChunkedUploadService;
+import com.zacklack.zacklack.service.ChunkedUploadService.UploadStatus;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadControllerTest {
+
+    @Mock ChunkedUploadService uploads;
+
+    ChunkedUploadController controller;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() {
+        controller = new ChunkedUploadController(uploads);
+    }
+
+    @Test
+    void createReturnsLocation() throws Exception {
+        when(uploads.create("my pack.zip", 10)).thenReturn(new UploadStatus("abc", 0, 10, null));
+        String metadata = "filetype emlw,filename " + Base64.getEncoder()
+            .encodeToString("my pack.zip".getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<Void> resp = controller.create(10, metadata,
+            new MockHttpServletRequest("POST", "/api/resourcepacks/uploads"));
+
+        assertEquals(201, resp.getStatusCode().value());
+        assertEquals("http://localhost/api/resourcepacks/uploads/abc", resp.getHeaders().getFirst("Location"));
+        assertEquals("0", resp.getHeaders().getFirst("Upload-Offset"));
+    }
+
+    @Test
+    void createRejectsBadLength() throws Exception {
+        when(uploads.create("pack.zip", 0)).thenThrow(new IllegalArgumentException("bad"));
+        assertEquals(400, controller.create(0, null, new MockHttpServletRequest()).getStatusCode().value());
+    }
+
+    @Test
+    void headReportsOffset() {
+        when(uploads.status("abc")).thenReturn(new UploadStatus("abc", 4, 10, null));
+        ResponseEntity<Void> resp = controller.offset("abc");
+        assertEquals("4", resp.getHeaders().getFirst("Upload-Offset"));
+        assertEquals("10", resp.getHeaders().getFirst("Upload-Length"));
+
+        when(uploads.status("gone")).thenThrow(new UploadNotFoundException("gone"));
+        assertEquals(404, controller.offset("gone").getStatusCode().value());
+    }
+
+    @Test
+    void patchAppendsAndCompletes() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest("PATCH", "/api/resourcepacks/uploads/abc");
+        req.setContent(new byte[4]);
+        when(uploads.append(eq("abc"), eq(0L), any(), eq(req))).thenReturn(new UploadStatus("abc", 4, 10, null));
+        ResponseEntity<?> partial = controller.append("abc", 0, req);
+        assertEquals(204, partial.getStatusCode().value());
+        assertEquals("4", partial.getHeaders().getFirst("Upload-Offset"));
+
+        ResourcePack pack = new ResourcePack();
+        when(uploads.append(eq("abc"), eq(4L), any(), eq(req))).thenReturn(new UploadStatus("abc", 10, 10, pack));
+        ResponseEntity<?> done = controller.append("abc", 4, req);
+        assertEquals(201, done.getStatusCode().value());
+        assertSame(pack, done.getBody());
+    }
+
+    @Test
+    void patchConflictsOnStaleOffset() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        when(uploads.append(eq("abc"), eq(0L), any(), eq(req))).thenThrow(new UploadOffsetException("stale", 4));
+        ResponseEntity<?> resp = controller.append("abc", 0, req);
+        assertEquals(409, resp.getStatusCode().value());
+        assertEquals("4", resp.getHeaders().getFirst("Upload-Offset"));
+    }
+
+    @Test
+    void deleteCancels() throws Exception {
+        assertEquals(204, controller.cancel("abc").getStatusCode().value());
+        doThrow(new UploadNotFoundException("gone")).when(uploads).cancel("gone");
+        assertEquals(404, controller.cancel("gone").getStatusCode().value());
+    }
+
+    @Test
+    void storeFailureIsNotReportedAsUnknownUpload() throws Exception {
+        MockHttpServletRequest req = new MockHttpServletRequest();
+        when(uploads.append(eq("abc"), eq(4L), any(), eq(req))).thenThrow(new IllegalStateException("db down"));
+        // Left to GlobalExceptionHandler, which answers 500
+        assertThrows(IllegalStateException.class, () -> controller.append("abc", 4, req));
+    }
+
+    @Test
+    void filenameDefaultsWithoutMetadata() {
+        assertEquals("pack.zip", ChunkedUploadController.filenameFrom(null));
+        assertEquals("pack.zip", ChunkedUploadController.filenameFrom("filename !!!"));
+    }
+}
@@ -1,14 +1,12 @@
 package com.zacklack.zacklack.controller;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,12 +18,28 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import org.apache.catalina.connector.ClientAbortException;
+
+import com.zacklack.zacklack.dto.PackFilter;
+import com.zacklack.zacklack.dto.PackPage;
+import com.zacklack.zacklack.dto.PackSummary;
+import com.zacklack.zacklack.exception.InvalidPackException;
 import com.zacklack.zacklack.model.ConversionJob;
 import com.zacklack.zacklack.model.ResourcePack;
 import com.zacklack.zacklack.repository.ConversionJobRepository;
+import com.zacklack.zacklack.service.ConversionEventService;
+import com.zacklack.zacklack.service.ConversionLogService;
 import com.zacklack.zacklack.service.ConverterService;
+import com.zacklack.zacklack.service.MultipartUploadService;
+import com.zacklack.zacklack.service.PackChangeTracker;
+import com.zacklack.zacklack.service.PackDistributionIndex;
+import com.zacklack.zacklack.service.PackDownloadService;
 import com.zacklack.zacklack.service.ResourcePackService;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -36,56 +50,130 @@ class ResourcePackControllerTest {
     @Mock ResourcePackService service;
     @Mock ConverterService converterService;
     @Mock ConversionJobRepository jobRepo;
+    @Mock ConversionLogService logService;
+    @Mock ConversionEventService eventService;
+    @Mock PackDownloadService downloadService;
+    @Mock MultipartUploadService multipartUploads;
+
+    PackChangeTracker changes = new PackChangeTracker();
 
     ResourcePackController controller;
 
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse());
+    }
+
     @BeforeEach
     @SuppressWarnings("unused")
     void setup() {
-        controller = new ResourcePackController(service, converterService, jobRepo);
+        controller = new ResourcePackController(service, converterService, jobRepo, logService, eventService, downloadService, changes, multipartUploads);
     }
 
     @Test
     void getAllPacks() {
-        List<ResourcePack> list = List.of(new ResourcePack());
-        when(service.findAllOriginals()).thenReturn(list);
-        assertEquals(list, controller.getAllPacks());
+        List<PackSummary> list = List.of(summary(1L));
+        when(service.findOriginals(PackFilter.none(), null, null)).thenReturn(new PackPage<>(list, null));
+        ResponseEntity<List<PackSummary>> resp = listPacks(webRequest(), null, null);
+        assertEquals(list, resp.getBody());
+        assertNull(resp.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void getAllPacksLinksNextPage() {
+        when(service.findOriginals(new PackFilter(15, null, "a"), null, 2))
+            .thenReturn(new PackPage<>(List.of(summary(1L)), "abc"));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/resourcepacks");
+        servletRequest.setQueryString("packFormat=15&name=a&limit=2");
+        ResponseEntity<List<PackSummary>> resp = controller.getAllPacks(15, null, "a", null, 2,
+            new ServletWebRequest(servletRequest, new MockHttpServletResponse()), servletRequest);
+
+        assertEquals("abc", resp.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("<http://localhost/api/resourcepacks?packFormat=15&name=a&limit=2&cursor=abc>; rel=\"next\"",
+            resp.getHeaders().getFirst("Link"));
+    }
+
+    @Test
+    void getAllPacksRejectsBadCursor() {
+        when(service.findOriginals(PackFilter.none(), "bad", null)).thenThrow(new IllegalArgumentException());
+        assertEquals(400, listPacks(webRequest(), "bad", null).getStatusCode().value());
+    }
+
+    private ResponseEntity<List<PackSummary>> listPacks(ServletWebRequest request, String cursor, Integer limit) {
+        return controller.getAllPacks(null, null, null, cursor, limit, request, request.getRequest());
+    }
+
+    private static PackSummary summary(Long id) {
+        return new PackSummary(id, "p.zip", "s.zip", 1L, "h", null, null, 15, "1.20", false, null, null);
+    }
+
+    @Test
+    void getPackAndConversions() {
+        PackSummary pack = summary(1L);
+        when(service.findSummary(1L)).thenReturn(pack);
+        when(service.findConversionSummaries(1L)).thenReturn(List.of());
+        assertSame(pack, controller.getPack(1L, webRequest()).getBody());
+        assertEquals(List.of(), controller.getConversions(1L, webRequest()).getBody());
     }
 
     @Test
     void getPackNotFound() {
-        when(service.findById(1L)).thenThrow(new RuntimeException());
-        assertTrue(controller.getPack(1L).getStatusCode().is4xxClientError());
+        when(service.findSummary(1L)).thenThrow(new RuntimeException());
+        assertTrue(controller.getPack(1L, webRequest()).getStatusCode().is4xxClientError());
     }
 
     @Test
     void getHash() {
         when(service.findHashById(1L)).thenReturn("abc");
-        assertEquals("abc", controller.getHash(1L).getBody());
+        assertEquals("abc", controller.getHash(1L, webRequest()).getBody());
         when(service.findHashById(2L)).thenThrow(new RuntimeException());
-        assertEquals(404, controller.getHash(2L).getStatusCode().value());
+        assertEquals(404, controller.getHash(2L, webRequest()).getStatusCode().value());
     }
 
-    private MockMultipartFile zip() throws Exception {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
-            zos.putNextEntry(new ZipEntry("pack.mcmeta"));
-            zos.write("{}".getBytes(StandardCharsets.UTF_8));
-            zos.closeEntry();
-        }
-        return new MockMultipartFile("file","p.zip","application/zip", bos.toByteArray());
+    @Test
+    void getServerProperties() {
+        when(service.findDistribution(1L)).thenReturn(new PackDistributionIndex.Entry(1L, "abc", "s.zip"));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/resourcepacks/1/server-properties");
+        ResponseEntity<String> resp = controller.getServerProperties(1L,
+            new ServletWebRequest(servletRequest, new MockHttpServletResponse()), servletRequest);
+        assertEquals("resource-pack=http://localhost/api/resourcepacks/1/download\nresource-pack-sha1=abc\n", resp.getBody());
+
+        ReflectionTestUtils.setField(controller, "publicBaseUrl", "https://cdn.example.com");
+        MockHttpServletRequest conditional = new MockHttpServletRequest("GET", "/api/resourcepacks/1/server-properties");
+        conditional.addHeader("If-None-Match", "\"abc\"");
+        assertNull(controller.getServerProperties(1L,
+            new ServletWebRequest(conditional, new MockHttpServletResponse()), conditional));
+        resp = controller.getServerProperties(1L, webRequest(), servletRequest);
+        assertTrue(resp.getBody().startsWith("resource-pack=https://cdn.example.com/api/resourcepacks/1/download\n"));
+
+        when(service.findDistribution(2L)).thenThrow(new RuntimeException());
+        assertEquals(404, controller.getServerProperties(2L, webRequest(), servletRequest).getStatusCode().value());
     }
 
     @Test
     void uploadPack() throws Exception {
         ResourcePack rp = new ResourcePack();
-        when(service.store(any(), any())).thenReturn(rp);
         HttpServletRequest req = Mockito.mock(HttpServletRequest.class);
-        ResponseEntity<ResourcePack> resp = controller.uploadPack(zip(), req, null);
+        when(multipartUploads.receive(req)).thenReturn(rp);
+        ResponseEntity<ResourcePack> resp = controller.uploadPack(req, null);
         assertEquals(201, resp.getStatusCode().value());
         assertSame(rp, resp.getBody());
     }
 
+    @Test
+    void uploadPackErrors() throws Exception {
+        HttpServletRequest req = Mockito.mock(HttpServletRequest.class);
+        when(multipartUploads.receive(req)).thenThrow(new IllegalArgumentException("no file part"));
+        assertEquals(400, controller.uploadPack(req, null).getStatusCode().value());
+
+        Mockito.reset(multipartUploads);
+        when(multipartUploads.receive(req)).thenThrow(new ClientAbortException());
+        assertEquals(204, controller.uploadPack(req, null).getStatusCode().value());
+
+        Mockito.reset(multipartUploads);
+        when(multipartUploads.receive(req)).thenThrow(new InvalidPackException("bad"));
+        assertThrows(InvalidPackException.class, () -> controller.uploadPack(req, null));
+    }
+
     @Test
     void deletePack() {
         ResponseEntity<Void> resp = controller.deleteResourcePack(3L);
@@ -96,10 +184,20 @@ class ResourcePackControllerTest {
     @Test
     void convert() {
         ConversionJob job = new ConversionJob();
-        when(converterService.createJob(1L, "1.20")).thenReturn(job);
-        ResponseEntity<ConversionJob> resp = controller.convert(1L, "1.20");
+        when(converterService.submit(1L, "1.20")).thenReturn(job);
+        ResponseEntity<?> resp = controller.convert(1L, List.of("1.20"));
+        assertEquals(202, resp.getStatusCode().value());
+        assertSame(job, resp.getBody());
+    }
+
+    @Test
+    void convertBatch() {
+        List<ConversionJob> jobs = List.of(new ConversionJob(), new ConversionJob());
+        when(converterService.submitAll(1L, List.of("1.20", "1.21"))).thenReturn(jobs);
+        ResponseEntity<?> resp = controller.convert(1L, List.of("1.20", " 1.21", "1.20"));
         assertEquals(202, resp.getStatusCode().value());
-        verify(converterService).runConversion(job.getId());
+        assertSame(jobs, resp.getBody());
+        assertEquals(400, controller.convert(1L, List.of(" ")).getStatusCode().value());
     }
 
     @Test
@@ -110,4 +208,56 @@ class ResourcePackControllerTest {
         when(jobRepo.findById(6L)).thenReturn(Optional.empty());
         assertEquals(404, controller.getJob(6L).getStatusCode().value());
     }
+
+    @Test
+    void streamJobLog() {
+        SseEmitter emitter = new SseEmitter();
+        when(logService.subscribe(5L)).thenReturn(emitter);
+        assertSame(emitter, controller.streamJobLog(5L).getBody());
+        when(logService.subscribe(6L)).thenThrow(new RuntimeException());
+        assertEquals(404, controller.streamJobLog(6L).getStatusCode().value());
+    }
+
+    @Test
+    void streamJobStatus() {
+        SseEmitter emitter = new SseEmitter();
+        when(eventService.subscribe(List.of(1L, 2L))).thenReturn(emitter);
+        assertSame(emitter, controller.streamJobStatus(List.of(1L, 2L)).getBody());
+        when(eventService.subscribe(List.of())).thenThrow(new IllegalArgumentException());
+        assertEquals(400, controller.streamJobStatus(List.of()).getStatusCode().value());
+    }
+
+    @Test
+    void download() throws Exception {
+        ResourcePack pack = new ResourcePack();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(service.findById(1L)).thenReturn(pack);
+        controller.download(1L, request, response);
+        verify(downloadService).send(pack, request, response);
+
+        when(service.findById(2L)).thenThrow(new RuntimeException());
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        controller.download(2L, request, missing);
+        assertEquals(404, missing.getStatus());
+    }
+
+    @Test
+    void listIsNotModifiedUntilPacksChange() {
+        when(service.findOriginals(PackFilter.none(), null, null)).thenReturn(new PackPage<>(List.of(), null));
+        ServletWebRequest first = webRequest();
+        listPacks(first, null, null);
+        String etag = first.getResponse().getHeader("ETag");
+
+        MockHttpServletRequest again = new MockHttpServletRequest("GET", "/");
+        again.addHeader("If-None-Match", etag);
+        ServletWebRequest second = new ServletWebRequest(again, new MockHttpServletResponse());
+        assertNull(listPacks(second, null, null));
+        assertEquals(304, second.getResponse().getStatus());
+        verify(service, Mockito.times(1)).findOriginals(PackFilter.none(), null, null);
+
+        changes.changed();
+        ServletWebRequest third = new ServletWebRequest(again, new MockHttpServletResponse());
+        assertEquals(200, listPacks(third, null, null).getStatusCode().value());
+    }
 }
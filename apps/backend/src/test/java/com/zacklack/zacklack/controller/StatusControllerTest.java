@@ -3,16 +3,35 @@ package com.zacklack.zacklack.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 class StatusControllerTest {
     @SuppressWarnings("null")
     @Test
     void statusOk() {
-        StatusController c = new StatusController();
+        StatusController c = new StatusController(new ThreadPoolTaskExecutor());
         ResponseEntity<java.util.Map<String,String>> resp = c.status();
         assertNotNull(resp.getBody(), "Response body should not be null");
         if (resp.getBody() != null) {
             assertEquals("ok", resp.getBody().get("status"));
         }
     }
+
+    @Test
+    void conversionQueueStats() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(5);
+        executor.initialize();
+        try {
+            java.util.Map<String, Integer> stats = new StatusController(executor).conversions().getBody();
+            assertNotNull(stats);
+            assertEquals(2, stats.get("workers"));
+            assertEquals(0, stats.get("queueDepth"));
+            assertEquals(5, stats.get("queueCapacity"));
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
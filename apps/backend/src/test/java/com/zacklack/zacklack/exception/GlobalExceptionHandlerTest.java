@@ -28,6 +28,13 @@ class GlobalExceptionHandlerTest {
         assertEquals(400, resp.getStatusCode().value());
     }
 
+    @Test
+    void conversionQueueFull() {
+        ResponseEntity<String> resp = handler.handleConversionQueueFull(new ConversionQueueFullException("full", 30), request);
+        assertEquals(429, resp.getStatusCode().value());
+        assertEquals("30", resp.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
     @Test
     void notFound() {
         NoHandlerFoundException ex = new NoHandlerFoundException("GET", "/x", new HttpHeaders());
@@ -0,0 +1,91 @@
+package com.zacklack.zacklack.load;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latencies of one kind of request in a load run. Samples are kept in full
+ * and sorted once at the end, so percentiles are exact (nearest rank).
+ */
+final class LatencyRecorder {
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Long> samples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger errors = new AtomicInteger();
+    private volatile long firstStart = Long.MAX_VALUE;
+    private volatile long lastEnd = Long.MIN_VALUE;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /** Record a successful call that ran from {@code start} to now. */
+    void success(long start) {
+        long end = System.nanoTime();
+        samples.add(end - start);
+        window(start, end);
+    }
+
+    /** Record a failed call; it counts towards the window, not latency. */
+    void error(long start) {
+        errors.incrementAndGet();
+        window(start, System.nanoTime());
+    }
+
+    int count() {
+        return samples.size();
+    }
+
+    int errors() {
+        return errors.get();
+    }
+
+    private synchronized void window(long start, long end) {
+        firstStart = Math.min(firstStart, start);
+        lastEnd = Math.max(lastEnd, end);
+    }
+
+    /** Header matching {@link #summary()}. */
+    static String header() {
+        return String.format(
+            Locale.ROOT,
+            "%-22s %7s %6s %9s %9s %9s %9s %9s%n",
+            "operation", "ok", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"
+        );
+    }
+
+    /** One report line: count, errors, throughput and latency percentiles. */
+    String summary() {
+        long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+        double seconds = sorted.length == 0 && errors.get() == 0
+            ? 0
+            : (lastEnd - firstStart) / 1e9;
+        double throughput = seconds > 0 ? sorted.length / seconds : 0;
+        return String.format(
+            Locale.ROOT,
+            "%-22s %7d %6d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+            name,
+            sorted.length,
+            errors.get(),
+            throughput,
+            millis(percentile(sorted, 50)),
+            millis(percentile(sorted, 95)),
+            millis(percentile(sorted, 99)),
+            millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0)
+        );
+    }
+
+    static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
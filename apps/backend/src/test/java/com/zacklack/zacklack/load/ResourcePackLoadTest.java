@@ -0,0 +1,320 @@
+package com.zacklack.zacklack.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * End-to-end load run: boots the application on a random port against an
+ * in-memory H2 database in MySQL mode, then drives it over HTTP with
+ * concurrent clients.
+ * <ol>
+ * <li>multipart uploads to {@code POST /api/resourcepacks}</li>
+ * <li>listing ({@code GET /api/resourcepacks}) and detail reads</li>
+ * <li>conversions: {@code POST /{id}/convert}, then polling the job until it
+ * finishes, so the end-to-end time includes queueing and every stage</li>
+ * </ol>
+ * Latency percentiles and throughput per operation, plus the average stage
+ * breakdown of finished conversions, are printed and written to
+ * {@code target/load-report.txt}.
+ * <p>
+ * Excluded from the default build; run with {@code mvn -Pload test}. Sizes
+ * are tunable through {@code -Dload.clients}, {@code load.uploads},
+ * {@code load.listings}, {@code load.conversions}, {@code load.pack-bytes}
+ * and {@code load.target-version}. The schema comes from the entities
+ * because the Flyway scripts are MySQL-specific, so the secondary indexes
+ * of the migrations are missing.
+ */
+@Tag("load")
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "spring.datasource.url=jdbc:h2:mem:rphload;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.servlet.multipart.max-file-size=100MB",
+        "spring.servlet.multipart.max-request-size=100MB",
+        "conversion.executor.queue-capacity=10000",
+        "logging.level.root=WARN",
+    }
+)
+class ResourcePackLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String BOUNDARY = "----rph-load-boundary";
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final int UPLOADS = Integer.getInteger("load.uploads", 200);
+    private static final int LISTINGS = Integer.getInteger("load.listings", 1000);
+    private static final int CONVERSIONS = Integer.getInteger("load.conversions", 20);
+    private static final int PACK_BYTES = Integer.getInteger("load.pack-bytes", 256 * 1024);
+    private static final String TARGET_VERSION = System.getProperty("load.target-version", "1.21");
+    private static final Duration CONVERSION_DEADLINE = Duration.ofMinutes(10);
+
+    private static final Path UPLOAD_DIR;
+
+    static {
+        try {
+            UPLOAD_DIR = Files.createTempDirectory("rph-load-");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("file.upload-dir", UPLOAD_DIR::toString);
+    }
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+
+    @Test
+    void uploadsListingsAndConversions() throws Exception {
+        // Distinct content per upload so nothing is deduplicated; built up
+        // front to keep pack generation out of the measurements
+        List<byte[]> bodies = new ArrayList<>();
+        for (int i = 0; i < UPLOADS; i++) {
+            bodies.add(multipart(syntheticPack(i)));
+        }
+
+        LatencyRecorder upload = new LatencyRecorder("POST upload");
+        List<Long> packIds = new CopyOnWriteArrayList<>();
+        long uploaded = System.nanoTime();
+        runConcurrently(UPLOADS, i -> {
+            byte[] body = bodies.get(i);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = http.send(
+                    HttpRequest.newBuilder(uri("/api/resourcepacks"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build(),
+                    HttpResponse.BodyHandlers.ofString()
+                );
+                if (response.statusCode() == 201 || response.statusCode() == 200) {
+                    upload.success(start);
+                    packIds.add(JSON.readTree(response.body()).path("id").asLong());
+                } else {
+                    upload.error(start);
+                }
+            } catch (Exception e) {
+                upload.error(start);
+            }
+        });
+        double uploadSeconds = (System.nanoTime() - uploaded) / 1e9;
+
+        LatencyRecorder listing = new LatencyRecorder("GET list");
+        LatencyRecorder detail = new LatencyRecorder("GET detail");
+        runConcurrently(LISTINGS, i -> {
+            boolean list = i % 2 == 0;
+            URI target = list
+                ? uri("/api/resourcepacks?limit=50")
+                : uri("/api/resourcepacks/" + packIds.get(i % packIds.size()));
+            LatencyRecorder recorder = list ? listing : detail;
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = http.send(
+                    HttpRequest.newBuilder(target).GET().build(),
+                    HttpResponse.BodyHandlers.discarding()
+                );
+                if (response.statusCode() == 200) {
+                    recorder.success(start);
+                } else {
+                    recorder.error(start);
+                }
+            } catch (Exception e) {
+                recorder.error(start);
+            }
+        });
+
+        LatencyRecorder submit = new LatencyRecorder("POST convert");
+        LatencyRecorder conversion = new LatencyRecorder("conversion e2e");
+        Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        Map<String, LongAdder> stageTotals = new ConcurrentHashMap<>();
+        runConcurrently(Math.min(CONVERSIONS, packIds.size()), i -> {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = http.send(
+                    HttpRequest.newBuilder(uri("/api/resourcepacks/" + packIds.get(i) + "/convert?version=" + TARGET_VERSION))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                    HttpResponse.BodyHandlers.ofString()
+                );
+                if (response.statusCode() != 202) {
+                    submit.error(start);
+                    conversion.error(start);
+                    return;
+                }
+                submit.success(start);
+                JsonNode job = awaitJob(JSON.readTree(response.body()).path("id").asLong());
+                String status = job.path("status").asText();
+                statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                if ("COMPLETED".equals(status)) {
+                    conversion.success(start);
+                    job.path("stageTimings").fields().forEachRemaining(stage ->
+                        stageTotals.computeIfAbsent(stage.getKey(), s -> new LongAdder())
+                            .add(stage.getValue().asLong())
+                    );
+                } else {
+                    conversion.error(start);
+                }
+            } catch (Exception e) {
+                conversion.error(start);
+            }
+        });
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(
+            "Load run: %d clients, %d uploads of ~%d KB, %d reads, %d conversions to %s%n",
+            CLIENTS, UPLOADS, PACK_BYTES / 1024, LISTINGS, Math.min(CONVERSIONS, packIds.size()), TARGET_VERSION
+        ));
+        report.append(String.format("Upload throughput: %.1f MB/s%n%n",
+            upload.count() * (double) PACK_BYTES / 1e6 / uploadSeconds));
+        report.append(LatencyRecorder.header());
+        for (LatencyRecorder recorder : List.of(upload, listing, detail, submit, conversion)) {
+            report.append(recorder.summary());
+        }
+        report.append(String.format("%nConversion results: %s%n", new TreeMap<>(statuses)));
+        long completed = statuses.getOrDefault("COMPLETED", new LongAdder()).sum();
+        if (completed > 0) {
+            report.append("Average stage time of completed conversions (ms):");
+            stageTotals.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue((a, b) -> Long.compare(b.sum(), a.sum())))
+                .forEach(e -> report.append(' ').append(e.getKey()).append('=').append(e.getValue().sum() / completed));
+            report.append(System.lineSeparator());
+        }
+        System.out.print(report);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "load-report.txt"), report);
+
+        assertEquals(0, upload.errors(), "uploads failed");
+        assertEquals(0, listing.errors() + detail.errors(), "reads failed");
+        assertEquals(0, submit.errors(), "conversion requests failed");
+        assertTrue(conversion.count() + conversion.errors() > 0 || CONVERSIONS == 0);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /** Run {@code total} tasks on {@link #CLIENTS} concurrent client threads. */
+    private static void runConcurrently(int total, IntConsumer task) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < total; i++) {
+                int n = i;
+                futures.add(clients.submit(() -> task.accept(n)));
+            }
+            for (Future<?> future : futures) {
+                future.get(CONVERSION_DEADLINE.toMinutes() + 5, TimeUnit.MINUTES);
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private JsonNode awaitJob(long jobId) throws Exception {
+        long deadline = System.nanoTime() + CONVERSION_DEADLINE.toNanos();
+        while (System.nanoTime() < deadline) {
+            HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(uri("/api/resourcepacks/conversions/" + jobId)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()
+            );
+            JsonNode job = JSON.readTree(response.body());
+            String status = job.path("status").asText();
+            if ("COMPLETED".equals(status) || "FAILED".equals(status)) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Conversion job " + jobId + " did not finish in time");
+    }
+
+    /** A 1.20 pack: pack.mcmeta, one real texture and incompressible filler. */
+    private static byte[] syntheticPack(int seed) throws IOException {
+        Random random = new Random(seed);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(PACK_BYTES + 4096);
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("pack.mcmeta"));
+            zos.write("{\"pack\":{\"pack_format\":15,\"description\":\"load test\"}}".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+
+            BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_ARGB);
+            for (int x = 0; x < 16; x++) {
+                for (int y = 0; y < 16; y++) {
+                    image.setRGB(x, y, random.nextInt());
+                }
+            }
+            zos.putNextEntry(new ZipEntry("assets/minecraft/textures/block/stone.png"));
+            ImageIO.write(image, "png", zos);
+            zos.closeEntry();
+
+            byte[] filler = new byte[16 * 1024];
+            for (int i = 0; i * filler.length < PACK_BYTES; i++) {
+                random.nextBytes(filler);
+                zos.putNextEntry(new ZipEntry("assets/loadtest/data/blob_" + i + ".bin"));
+                zos.write(filler);
+                zos.closeEntry();
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private static byte[] multipart(byte[] pack) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"load.zip\"\r\n"
+            + "Content-Type: application/zip\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[head.length + pack.length + tail.length];
+        System.arraycopy(head, 0, body, 0, head.length);
+        System.arraycopy(pack, 0, body, head.length, pack.length);
+        System.arraycopy(tail, 0, body, head.length + pack.length, tail.length);
+        return body;
+    }
+}
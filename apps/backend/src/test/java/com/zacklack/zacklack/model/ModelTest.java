@@ -1,7 +1,9 @@
 package com.zacklack.zacklack.model;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 
@@ -29,4 +31,20 @@ class ModelTest {
         assertEquals("PENDING", job.getStatus());
         assertEquals("log", job.getConsoleLog());
     }
+
+    @Test
+    void stageTimingsRoundTripAsCompactJson() {
+        StageTimingsConverter converter = new StageTimingsConverter();
+        Map<String, Long> timings = new LinkedHashMap<>();
+        timings.put("stage", 3L);
+        timings.put("convert", 5400L);
+        timings.put("hash", 41L);
+
+        String json = converter.convertToDatabaseColumn(timings);
+        assertEquals("{\"stage\":3,\"convert\":5400,\"hash\":41}", json);
+        assertEquals(List.of("stage", "convert", "hash"),
+            List.copyOf(converter.convertToEntityAttribute(json).keySet()));
+        assertNull(converter.convertToDatabaseColumn(Map.of()));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
 }
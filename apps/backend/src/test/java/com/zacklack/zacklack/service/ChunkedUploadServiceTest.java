@@ -0,0 +1,213 @@
+package com.zacklack.zacklack.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zacklack.zacklack.exception.InvalidPackException;
+import com.zacklack.zacklack.exception.UploadNotFoundException;
+import com.zacklack.zacklack.exception.UploadOffsetException;
+import com.zacklack.zacklack.model.ResourcePack;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+@ExtendWith(MockitoExtension.class)
+class ChunkedUploadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    ResourcePackService packService;
+
+    ChunkedUploadService service;
+
+    Path staging;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() throws Exception {
+        service = new ChunkedUploadService(packService, new HashingService(1));
+        staging = tempDir.resolve("partial");
+        ReflectionTestUtils.setField(service, "uploadDir", tempDir.resolve("uploads").toString());
+        ReflectionTestUtils.setField(service, "stagingDir", staging.toString());
+        ReflectionTestUtils.setField(service, "maxSize", 1000L);
+        ReflectionTestUtils.setField(service, "expireAfterMinutes", 60L);
+        service.init();
+    }
+
+    private static byte[] content(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    private static HashingService.Digests digests(byte[] data) throws Exception {
+        return new HashingService.Digests(data.length,
+            HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(data)),
+            HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data)));
+    }
+
+    private AtomicReference<byte[]> captureStored(ResourcePack result) throws Exception {
+        AtomicReference<byte[]> stored = new AtomicReference<>();
+        when(packService.storeStaged(any(), eq("pack.zip"), any(), any()))
+            .thenAnswer(inv -> {
+                stored.set(Files.readAllBytes(inv.getArgument(0)));
+                return result;
+            });
+        return stored;
+    }
+
+    @Test
+    void chunksAreAssembledAndHashedOnce() throws Exception {
+        byte[] data = content(300);
+        ResourcePack pack = new ResourcePack();
+        AtomicReference<byte[]> stored = captureStored(pack);
+        String id = service.create("pack.zip", data.length).id();
+
+        assertEquals(100, service.append(id, 0, new ByteArrayInputStream(data, 0, 100), null).offset());
+        assertNull(service.append(id, 100, new ByteArrayInputStream(data, 100, 100), null).pack());
+        var done = service.append(id, 200, new ByteArrayInputStream(data, 200, 100), null);
+
+        assertSame(pack, done.pack());
+        assertArrayEquals(data, stored.get());
+        verify(packService).storeStaged(any(), eq("pack.zip"), eq(digests(data)), any());
+        assertEquals(0, service.activeUploads());
+        assertFalse(Files.exists(staging.resolve(id + ".part")));
+    }
+
+    @Test
+    void interruptedChunkKeepsReceivedBytes() throws Exception {
+        byte[] data = content(200);
+        AtomicReference<byte[]> stored = captureStored(new ResourcePack());
+        String id = service.create("pack.zip", data.length).id();
+
+        InputStream cutOff = new InputStream() {
+            private final InputStream first = new ByteArrayInputStream(data, 0, 70);
+
+            @Override
+            public int read() throws IOException {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = first.read(b, off, len);
+                if (n == -1) {
+                    throw new IOException("connection reset");
+                }
+                return n;
+            }
+        };
+        assertThrows(IOException.class, () -> service.append(id, 0, cutOff, null));
+        assertEquals(70, service.status(id).offset());
+
+        service.append(id, 70, new ByteArrayInputStream(Arrays.copyOfRange(data, 70, 200)), null);
+        assertArrayEquals(data, stored.get());
+        verify(packService).storeStaged(any(), any(), eq(digests(data)), any());
+    }
+
+    @Test
+    void failedStoreKeepsUploadForRetry() throws Exception {
+        byte[] data = content(100);
+        ResourcePack pack = new ResourcePack();
+        when(packService.storeStaged(any(), eq("pack.zip"), eq(digests(data)), any()))
+            .thenThrow(new IllegalStateException("db down"))
+            .thenReturn(pack);
+        String id = service.create("pack.zip", data.length).id();
+
+        assertThrows(IllegalStateException.class,
+            () -> service.append(id, 0, new ByteArrayInputStream(data), null));
+        assertEquals(100, service.status(id).offset());
+        assertTrue(Files.exists(staging.resolve(id + ".part")));
+
+        // An empty final chunk stores again, with the same digests
+        var done = service.append(id, 100, new ByteArrayInputStream(new byte[0]), null);
+        assertSame(pack, done.pack());
+        assertEquals(0, service.activeUploads());
+        assertFalse(Files.exists(staging.resolve(id + ".part")));
+    }
+
+    @Test
+    void invalidPackEndsUpload() throws Exception {
+        byte[] data = content(100);
+        when(packService.storeStaged(any(), any(), any(), any()))
+            .thenThrow(new InvalidPackException("no pack.mcmeta"));
+        String id = service.create("pack.zip", data.length).id();
+
+        assertThrows(InvalidPackException.class,
+            () -> service.append(id, 0, new ByteArrayInputStream(data), null));
+        assertThrows(UploadNotFoundException.class, () -> service.status(id));
+        assertFalse(Files.exists(staging.resolve(id + ".part")));
+    }
+
+    @Test
+    void staleOffsetIsRejected() throws Exception {
+        String id = service.create("pack.zip", 10).id();
+        service.append(id, 0, new ByteArrayInputStream(new byte[4]), null);
+
+        UploadOffsetException e = assertThrows(UploadOffsetException.class,
+            () -> service.append(id, 0, new ByteArrayInputStream(new byte[4]), null));
+        assertEquals(4, e.getCurrentOffset());
+    }
+
+    @Test
+    void lengthMustBePositiveAndWithinLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.create("pack.zip", 0));
+        assertThrows(MaxUploadSizeExceededException.class, () -> service.create("pack.zip", 1001));
+    }
+
+    @Test
+    void cancelDeletesPartialFile() throws Exception {
+        String id = service.create("pack.zip", 10).id();
+        assertTrue(Files.exists(staging.resolve(id + ".part")));
+
+        service.cancel(id);
+
+        assertFalse(Files.exists(staging.resolve(id + ".part")));
+        assertThrows(UploadNotFoundException.class, () -> service.status(id));
+    }
+
+    @Test
+    void idleUploadsExpire() throws Exception {
+        String id = service.create("pack.zip", 10).id();
+        ReflectionTestUtils.setField(service, "expireAfterMinutes", 0L);
+
+        service.expireIdle();
+
+        assertEquals(0, service.activeUploads());
+        assertFalse(Files.exists(staging.resolve(id + ".part")));
+    }
+
+    @Test
+    void initRemovesLeftovers() throws Exception {
+        Path leftover = Files.createFile(staging.resolve("old.part"));
+        service.init();
+        assertFalse(Files.exists(leftover));
+    }
+}
@@ -0,0 +1,96 @@
+package com.zacklack.zacklack.service;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zacklack.zacklack.model.ConversionJob;
+import com.zacklack.zacklack.repository.ConversionJobRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ConversionEventServiceTest {
+
+    @Mock
+    ConversionJobRepository jobRepo;
+
+    ConversionEventService service;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() {
+        service = new ConversionEventService(jobRepo);
+        ReflectionTestUtils.setField(service, "maxIds", 3);
+        ReflectionTestUtils.setField(service, "sseTimeoutMs", 1000L);
+    }
+
+    private static ConversionJob job(long id, String status) {
+        ConversionJob job = new ConversionJob();
+        ReflectionTestUtils.setField(job, "id", id);
+        job.setTargetVersion("1.20");
+        job.setStatus(status);
+        return job;
+    }
+
+    private Set<?> subscribers() {
+        return (Set<?>) ReflectionTestUtils.getField(service, "subscribers");
+    }
+
+    @Test
+    void rejectsEmptyOrOversizedIdLists() {
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(List.of(1L, 2L, 3L, 4L)));
+    }
+
+    @Test
+    void unknownJobsEndStreamImmediately() {
+        when(jobRepo.findAllById(Set.of(9L))).thenReturn(List.of());
+        service.subscribe(List.of(9L));
+        assertEquals(0, subscribers().size());
+    }
+
+    @Test
+    void streamEndsOnceAllWatchedJobsFinish() {
+        when(jobRepo.findAllById(Set.of(1L, 2L))).thenReturn(
+            List.of(job(1, "PENDING"), job(2, "COMPLETED"))
+        );
+        service.subscribe(List.of(1L, 2L));
+        service.flush();
+        assertEquals(1, subscribers().size());
+
+        // Updates for jobs nobody watches are ignored
+        service.publish(job(3, "FAILED"));
+        service.publish(job(1, "IN_PROGRESS"));
+        service.flush();
+        assertEquals(1, subscribers().size());
+
+        service.publish(job(1, "FAILED"));
+        service.flush();
+        assertEquals(0, subscribers().size());
+    }
+
+    @Test
+    void distributedModePollsJobsRunningElsewhere() {
+        ReflectionTestUtils.setField(service, "distributed", true);
+        when(jobRepo.findAllById(Set.of(1L))).thenReturn(
+            List.of(job(1, "PENDING"))
+        );
+        service.subscribe(List.of(1L));
+        service.flush();
+
+        when(jobRepo.findAllById(Set.of(1L))).thenReturn(
+            List.of(job(1, "COMPLETED"))
+        );
+        service.pollJobs();
+        service.flush();
+        assertEquals(0, subscribers().size());
+    }
+}
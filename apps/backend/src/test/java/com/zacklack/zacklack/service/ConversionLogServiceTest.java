@@ -0,0 +1,128 @@
+package com.zacklack.zacklack.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zacklack.zacklack.model.ConversionJob;
+import com.zacklack.zacklack.repository.ConversionJobRepository;
+import com.zacklack.zacklack.util.LogRingBuffer;
+
+@ExtendWith(MockitoExtension.class)
+class ConversionLogServiceTest {
+
+    @Mock
+    ConversionJobRepository jobRepo;
+
+    ConversionLogService service;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() {
+        service = new ConversionLogService(jobRepo);
+        ReflectionTestUtils.setField(service, "bufferLines", 10);
+        ReflectionTestUtils.setField(service, "maxLineLength", 100);
+        ReflectionTestUtils.setField(service, "sseTimeoutMs", 1000L);
+    }
+
+    @Test
+    void openReturnsSameBufferUntilClosed() {
+        LogRingBuffer first = service.open(1L);
+        assertEquals(first, service.open(1L));
+        service.close(1L);
+        assertEquals(true, first.isFinished());
+        assertEquals(false, service.open(1L).isFinished());
+    }
+
+    @Test
+    void subscribeToUnknownJobFails() {
+        when(jobRepo.findById(3L)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> service.subscribe(3L));
+    }
+
+    @Test
+    void subscribeToFinishedJobReplaysStoredLog() {
+        ConversionJob job = new ConversionJob();
+        job.setStatus("COMPLETED");
+        job.setConsoleLog("a\nb\n");
+        when(jobRepo.findById(2L)).thenReturn(Optional.of(job));
+        // Emitter is completed straight away; nothing is left to flush
+        service.subscribe(2L);
+        service.flush();
+    }
+
+    @Test
+    void flushCompletesSubscribersOfFinishedJobs() throws Exception {
+        LogRingBuffer buffer = service.open(4L);
+        buffer.outputStream().write("hello\n".getBytes());
+        service.subscribe(4L);
+        ConversionJob job = new ConversionJob();
+        job.setStatus("COMPLETED");
+        when(jobRepo.findById(4L)).thenReturn(Optional.of(job));
+
+        service.close(4L);
+        service.flush();
+
+        assertEquals(0, subscribers().size());
+    }
+
+    @Test
+    void subscribeToJobRunningElsewhereWaitsForItToFinish() {
+        ConversionJob job = new ConversionJob();
+        job.setId(5L);
+        job.setStatus("IN_PROGRESS");
+        when(jobRepo.findById(5L)).thenReturn(Optional.of(job));
+        when(jobRepo.findAllById(Set.of(5L))).thenReturn(List.of(job));
+
+        service.subscribe(5L);
+        service.pollJobs();
+        service.flush();
+        assertEquals(1, subscribers().size());
+
+        job.setStatus("COMPLETED");
+        job.setConsoleLog("done\n");
+        service.pollJobs();
+        service.flush();
+        assertEquals(0, subscribers().size());
+    }
+
+    @Test
+    void requeuedJobKeepsSubscriberForItsNextRun() {
+        LogRingBuffer first = service.open(6L);
+        service.subscribe(6L);
+        ConversionJob job = new ConversionJob();
+        job.setStatus("PENDING");
+        when(jobRepo.findById(6L)).thenReturn(Optional.of(job));
+
+        service.close(6L);
+        service.flush();
+        assertEquals(1, subscribers().size());
+
+        // The next run on this node is followed live again
+        LogRingBuffer second = service.open(6L);
+        service.flush();
+        job.setStatus("FAILED");
+        service.close(6L);
+        service.flush();
+        assertEquals(0, subscribers().size());
+        assertEquals(true, first.isFinished() && second.isFinished());
+        verify(jobRepo, never()).findAllById(Set.of(6L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Object> subscribers() {
+        return (Set<Object>) ReflectionTestUtils.getField(service, "subscribers");
+    }
+}
@@ -0,0 +1,187 @@
+package com.zacklack.zacklack.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import com.zacklack.zacklack.model.ConversionJob;
+import com.zacklack.zacklack.model.ResourcePack;
+import com.zacklack.zacklack.repository.ConversionJobRepository;
+import com.zacklack.zacklack.repository.ResourcePackRepository;
+
+/**
+ * Claims against an in-memory database, with two queue instances standing
+ * in for two backend nodes; the schema comes from the entities because the
+ * Flyway scripts are MySQL-specific.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class ConversionQueueTest {
+
+    @Autowired
+    ConversionJobRepository jobs;
+
+    @Autowired
+    ResourcePackRepository packs;
+
+    @Autowired
+    EntityManager entityManager;
+
+    ConversionQueue nodeA;
+    ConversionQueue nodeB;
+    ResourcePack pack;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() {
+        nodeA = new ConversionQueue(jobs, "node-a", 60000, 2);
+        nodeB = new ConversionQueue(jobs, "node-b", 60000, 2);
+        pack = packs.save(new ResourcePack("a.zip", "a.zip", 1L, "hash", LocalDateTime.now()));
+    }
+
+    private ConversionJob job(String status, LocalDateTime createdAt) {
+        ConversionJob job = new ConversionJob();
+        job.setResourcePack(pack);
+        job.setTargetVersion("1.20");
+        job.setStatus(status);
+        job.setCreatedAt(createdAt);
+        return jobs.save(job);
+    }
+
+    private ConversionJob reload(Long id) {
+        entityManager.flush();
+        entityManager.clear();
+        return jobs.findById(id).orElseThrow();
+    }
+
+    @Test
+    void onlyOneNodeWinsAClaim() {
+        ConversionJob job = job("PENDING", LocalDateTime.now());
+        entityManager.flush();
+
+        assertTrue(nodeA.claim(job.getId()));
+        assertFalse(nodeB.claim(job.getId()));
+
+        ConversionJob claimed = reload(job.getId());
+        assertEquals("IN_PROGRESS", claimed.getStatus());
+        assertEquals("node-a", claimed.getClaimedBy());
+    }
+
+    @Test
+    void claimBatchTakesOldestPendingJobs() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        ConversionJob newest = job("PENDING", base.plusMinutes(2));
+        ConversionJob oldest = job("PENDING", base);
+        job("COMPLETED", base.minusMinutes(1));
+        ConversionJob middle = job("PENDING", base.plusMinutes(1));
+        entityManager.flush();
+
+        assertEquals(List.of(oldest.getId(), middle.getId()), nodeA.claimBatch(2));
+        assertEquals(List.of(newest.getId()), nodeB.claimBatch(2));
+        assertEquals(List.of(), nodeA.claimBatch(2));
+        assertEquals(0, nodeA.pendingCount());
+    }
+
+    @Test
+    void releaseReturnsOnlyOwnJobs() {
+        ConversionJob job = job("PENDING", LocalDateTime.now());
+        entityManager.flush();
+        nodeA.claim(job.getId());
+
+        nodeB.release(job.getId());
+        assertEquals("IN_PROGRESS", reload(job.getId()).getStatus());
+
+        nodeA.release(job.getId());
+        ConversionJob released = reload(job.getId());
+        assertEquals("PENDING", released.getStatus());
+        assertNull(released.getClaimedBy());
+        assertEquals(1, nodeB.pendingCount());
+    }
+
+    @Test
+    void expiredLeaseIsRequeuedUntilAttemptsRunOut() {
+        ConversionJob job = job("PENDING", LocalDateTime.now());
+        entityManager.flush();
+        assertTrue(nodeA.claim(job.getId()));
+        // Fresh leases are left alone
+        assertEquals(List.of(), nodeB.reapExpired().requeued());
+
+        expireLease(job.getId());
+        assertEquals(List.of(job.getId()), nodeB.reapExpired().requeued());
+        assertEquals("PENDING", reload(job.getId()).getStatus());
+        assertFalse(nodeA.holds(job.getId()));
+
+        assertTrue(nodeB.claim(job.getId()));
+        expireLease(job.getId());
+        assertEquals(List.of(job.getId()), nodeA.reapExpired().failed());
+        ConversionJob failed = reload(job.getId());
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+    }
+
+    @Test
+    void heartbeatKeepsLeaseAlive() {
+        ConversionJob job = job("PENDING", LocalDateTime.now());
+        entityManager.flush();
+        nodeA.claim(job.getId());
+        expireLease(job.getId());
+        assertFalse(nodeB.leaseActive(job.getId()));
+
+        nodeA.heartbeat(List.of(job.getId()));
+        entityManager.clear();
+
+        assertTrue(nodeB.leaseActive(job.getId()));
+        assertEquals(List.of(), nodeB.reapExpired().requeued());
+        assertTrue(nodeA.holds(job.getId()));
+    }
+
+    @Test
+    void completeRecordsOutcomeOnlyForTheLeaseHolder() throws Exception {
+        ConversionJob job = job("PENDING", LocalDateTime.now());
+        entityManager.flush();
+        nodeA.claim(job.getId());
+        ConversionJob run = reload(job.getId());
+        // This node's copy, changed in memory only
+        entityManager.detach(run);
+        run.setStatus("COMPLETED");
+        run.setCompletedAt(LocalDateTime.now());
+        run.setStageTimings(new LinkedHashMap<>(Map.of("convert", 5L)));
+
+        // Requeued and claimed by node B while node A was still converting
+        expireLease(job.getId());
+        nodeB.reapExpired();
+        nodeB.claim(job.getId());
+        assertFalse(nodeA.complete(run, () -> {
+            throw new AssertionError("result written without the lease");
+        }));
+
+        assertTrue(nodeB.complete(run, () -> pack.getId()));
+        entityManager.clear();
+        ConversionJob done = reload(job.getId());
+        assertEquals("COMPLETED", done.getStatus());
+        assertEquals(pack.getId(), done.getResultPackId());
+        assertEquals(Map.of("convert", 5L), done.getStageTimings());
+        assertEquals("node-b", done.getClaimedBy());
+    }
+
+    private void expireLease(Long id) {
+        ConversionJob job = reload(id);
+        job.setHeartbeatAt(LocalDateTime.now().minusMinutes(5));
+        jobs.save(job);
+        entityManager.flush();
+    }
+}
@@ -4,27 +4,42 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import com.agentdid127.resourcepack.Main;
+import com.zacklack.zacklack.exception.ConversionQueueFullException;
 import com.zacklack.zacklack.model.ConversionJob;
 import com.zacklack.zacklack.model.ResourcePack;
 import com.zacklack.zacklack.repository.ConversionJobRepository;
@@ -41,15 +56,25 @@ class ConverterServiceTest {
     ConversionJobRepository jobRepo;
     @Mock
     ResourcePackService packService;
+    @Mock
+    ConversionEventService eventService;
 
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
     ConverterService service;
     ResourcePack orig;
     ConversionJob job;
 
+    private ConversionLogService logService() {
+        ConversionLogService logs = new ConversionLogService(jobRepo);
+        ReflectionTestUtils.setField(logs, "bufferLines", 100);
+        ReflectionTestUtils.setField(logs, "maxLineLength", 200);
+        return logs;
+    }
+
     @BeforeEach
     @SuppressWarnings("unused")
     void setup() throws Exception {
-        service = new ConverterService(packRepo, jobRepo, packService);
+        service = new ConverterService(packRepo, jobRepo, packService, Runnable::run, new InProcessPackConverter(), logService(), eventService, new PackChangeTracker(), new PackMetrics(registry), new ConversionQueue(jobRepo, "test-node", 60000, 3));
         ReflectionTestUtils.setField(service, "uploadDir", tempDir.toString());
         ReflectionTestUtils.setField(service, "defaultSourceVersion", "1.19");
 
@@ -71,7 +96,11 @@ class ConverterServiceTest {
     @Test
     void createJobCreatesPendingJob() {
         when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
-        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> i.getArgument(0));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob saved = i.getArgument(0);
+            ReflectionTestUtils.setField(saved, "id", 3L);
+            return saved;
+        });
 
         ConversionJob created = service.createJob(1L, "1.20");
         assertEquals("PENDING", created.getStatus());
@@ -81,16 +110,22 @@ class ConverterServiceTest {
 
     @Test
     void runConversionSuccess() throws Exception {
+        when(jobRepo.claim(eq(2L), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepo.finish(any(Long.class), eq("test-node"), any(), any(), any(), any(), any())).thenReturn(1);
         when(jobRepo.findById(2L)).thenReturn(Optional.of(job));
-        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> i.getArgument(0));
-        when(packService.computeHash(any(Path.class))).thenReturn("hash2");
+        when(packService.computeDigests(any(Path.class))).thenReturn(new HashingService.Digests(1, "hash2", "sha256"));
+        when(packRepo.save(any(ResourcePack.class))).thenAnswer(i -> {
+            ResourcePack saved = i.getArgument(0);
+            ReflectionTestUtils.setField(saved, "id", 9L);
+            return saved;
+        });
 
         Path convTemp = tempDir.resolve("tmp");
         Files.createDirectory(convTemp);
 
         try (MockedStatic<Files> filesMock = mockStatic(Files.class, CALLS_REAL_METHODS);
              MockedStatic<Main> mainMock = mockStatic(Main.class)) {
-            filesMock.when(() -> Files.createTempDirectory(any(String.class))).thenReturn(convTemp);
+            filesMock.when(() -> Files.createTempDirectory("rpcv-2-")).thenReturn(convTemp);
             mainMock.when(() -> Main.main(any(String[].class))).thenAnswer(inv -> {
                 Files.write(convTemp.resolve("input_converted.zip"), new byte[]{1});
                 return null;
@@ -99,19 +134,402 @@ class ConverterServiceTest {
         }
 
         assertEquals("COMPLETED", job.getStatus());
+        assertEquals(9L, job.getResultPackId());
+        verify(jobRepo).recordResult(eq(2L), eq("test-node"), eq(9L), any());
+        // IN_PROGRESS, then COMPLETED
+        verify(eventService, times(2)).publish(job);
+        assertEquals(List.of("queued", "stage", "convert", "hash", "metadata", "move", "save"),
+            List.copyOf(job.getStageTimings().keySet()));
+        assertEquals(1, registry.get("rph.conversion.duration")
+            .tag("target", job.getTargetVersion()).tag("status", "COMPLETED").timer().count());
+    }
+
+    @Test
+    void createJobServesCachedConversion() throws Exception {
+        ResourcePack other = new ResourcePack("same.zip", "other.zip", 1L, "hash", LocalDateTime.now());
+        ReflectionTestUtils.setField(other, "id", 7L);
+        ResourcePack cached = new ResourcePack("same.zip", "7/1.20/same_to_1.20.zip", 1L, "hash3", LocalDateTime.now());
+        ReflectionTestUtils.setField(cached, "id", 8L);
+        cached.setConverted(true);
+        cached.setOriginalPack(other);
+        cached.setTargetVersion("1.20");
+        Files.createDirectories(tempDir.resolve("7/1.20"));
+        Files.write(tempDir.resolve("7/1.20/same_to_1.20.zip"), new byte[]{1});
+
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(packRepo.findByConvertedTrueAndTargetVersionAndOriginalPackFileHash("1.20", "hash"))
+            .thenReturn(List.of(cached));
+        when(packRepo.save(any(ResourcePack.class))).thenAnswer(i -> {
+            ResourcePack saved = i.getArgument(0);
+            ReflectionTestUtils.setField(saved, "id", 10L);
+            return saved;
+        });
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> i.getArgument(0));
+
+        ConversionJob created = service.createJob(1L, "1.20");
+
+        assertEquals("COMPLETED", created.getStatus());
+        assertEquals(10L, created.getResultPackId());
+        ArgumentCaptor<ResourcePack> copy = ArgumentCaptor.forClass(ResourcePack.class);
+        verify(packRepo).save(copy.capture());
+        assertEquals("7/1.20/same_to_1.20.zip", copy.getValue().getStorageFilename());
+        assertSame(orig, copy.getValue().getOriginalPack());
+    }
+
+    @Test
+    void createJobCoalescesIdenticalRequests() {
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob saved = i.getArgument(0);
+            ReflectionTestUtils.setField(saved, "id", 3L);
+            return saved;
+        });
+
+        ConversionJob first = service.createJob(1L, "1.20");
+        ConversionJob second = service.createJob(1L, "1.20");
+
+        assertSame(first, second);
+        verify(jobRepo, times(1)).save(any(ConversionJob.class));
+    }
+
+    @Test
+    void packAttachedToInFlightJobGetsItsOwnConvertedRow() throws Exception {
+        ResourcePack twin = new ResourcePack("twin.zip", "input.zip", 1L, "hash", LocalDateTime.now());
+        ReflectionTestUtils.setField(twin, "id", 4L);
+        Map<Long, ResourcePack> packs = new HashMap<>();
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(packRepo.findById(4L)).thenReturn(Optional.of(twin));
+        when(packRepo.save(any(ResourcePack.class))).thenAnswer(i -> {
+            ResourcePack saved = i.getArgument(0);
+            ReflectionTestUtils.setField(saved, "id", 10L + packs.size());
+            packs.put(saved.getId(), saved);
+            return saved;
+        });
+        when(packRepo.findById(10L)).thenAnswer(i -> Optional.ofNullable(packs.get(10L)));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob saved = i.getArgument(0);
+            if (saved.getId() == null) {
+                saved.setId(3L);
+            }
+            return saved;
+        });
+        when(jobRepo.claim(eq(3L), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepo.finish(any(Long.class), eq("test-node"), any(), any(), any(), any(), any())).thenReturn(1);
+        when(packService.computeDigests(any(Path.class))).thenReturn(new HashingService.Digests(1, "hash2", "sha256"));
+
+        ConversionJob first = service.createJob(1L, "1.20");
+        ConversionJob attached = service.createJob(4L, "1.20");
+        assertSame(first, attached);
+        when(jobRepo.findById(3L)).thenReturn(Optional.of(first));
+
+        try (MockedStatic<Main> mainMock = mockStatic(Main.class)) {
+            mainMock.when(() -> Main.main(any(String[].class))).thenAnswer(inv -> {
+                String[] args = inv.getArgument(0);
+                Files.write(Path.of(args[1]).resolve("input_converted.zip"), new byte[]{1});
+                return null;
+            });
+            service.runConversion(3L);
+        }
+
+        assertEquals("COMPLETED", first.getStatus());
+        ResourcePack converted = packs.get(10L);
+        ResourcePack twinConverted = packs.get(11L);
+        assertSame(orig, converted.getOriginalPack());
+        assertSame(twin, twinConverted.getOriginalPack());
+        assertEquals(converted.getStorageFilename(), twinConverted.getStorageFilename());
+        assertEquals("1.20", twinConverted.getTargetVersion());
+    }
+
+    @Test
+    void submitAllRunsEachVersionFromOneStagedInput() throws Exception {
+        Map<Long, ConversionJob> saved = new HashMap<>();
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob j = i.getArgument(0);
+            if (j.getId() == null) {
+                j.setId(10L + saved.size());
+            }
+            saved.put(j.getId(), j);
+            return j;
+        });
+        when(jobRepo.findById(any(Long.class))).thenAnswer(i -> Optional.ofNullable(saved.get(i.<Long>getArgument(0))));
+        when(jobRepo.claim(any(Long.class), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepo.finish(any(Long.class), eq("test-node"), any(), any(), any(), any(), any())).thenReturn(1);
+        when(packService.computeDigests(any(Path.class))).thenReturn(new HashingService.Digests(1, "hash2", "sha256"));
+        when(packRepo.save(any(ResourcePack.class))).thenAnswer(i -> i.getArgument(0));
+
+        List<ConversionJob> jobs;
+        try (MockedStatic<Files> filesMock = mockStatic(Files.class, CALLS_REAL_METHODS);
+             MockedStatic<Main> mainMock = mockStatic(Main.class)) {
+            mainMock.when(() -> Main.main(any(String[].class))).thenAnswer(inv -> {
+                String[] args = inv.getArgument(0);
+                Files.write(Path.of(args[1]).resolve("input_converted.zip"), new byte[]{1});
+                return null;
+            });
+            jobs = service.submitAll(1L, List.of("1.20", "1.21", "1.20"));
+            // Source bytes are read from storage once for the whole batch
+            filesMock.verify(() -> Files.copy(eq(tempDir.resolve("input.zip")), any(Path.class)), times(1));
+        }
+
+        assertEquals(2, jobs.size());
+        assertEquals("1.20", jobs.get(0).getTargetVersion());
+        assertEquals("1.21", jobs.get(1).getTargetVersion());
+        jobs.forEach(j -> assertEquals("COMPLETED", j.getStatus()));
+        verify(packRepo, times(1)).findById(1L);
+    }
+
+    @Test
+    void submitRejectedWhenQueueFull() {
+        service = new ConverterService(packRepo, jobRepo, packService, task -> {
+            throw new TaskRejectedException("full");
+        }, new InProcessPackConverter(), logService(), eventService, new PackChangeTracker(), new PackMetrics(registry), new ConversionQueue(jobRepo, "test-node", 60000, 3));
+        ReflectionTestUtils.setField(service, "retryAfterSeconds", 15L);
+        ReflectionTestUtils.setField(service, "uploadDir", tempDir.toString());
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob saved = i.getArgument(0);
+            saved.setId(3L);
+            return saved;
+        });
+
+        ConversionQueueFullException ex = assertThrows(ConversionQueueFullException.class,
+            () -> service.submit(1L, "1.20"));
+
+        assertEquals(15L, ex.getRetryAfterSeconds());
+        verify(jobRepo).deleteById(3L);
+    }
+
+    @Test
+    void requestAttachedToRejectedJobIsRejectedToo() throws Exception {
+        Thread[] competing = new Thread[1];
+        Object[] outcome = new Object[1];
+        service = new ConverterService(packRepo, jobRepo, packService, task -> {
+            // A second request for the same conversion arrives before the
+            // executor has answered the first
+            competing[0] = new Thread(() -> {
+                try {
+                    outcome[0] = service.submit(1L, "1.20");
+                } catch (RuntimeException ex) {
+                    outcome[0] = ex;
+                }
+            });
+            competing[0].start();
+            while (competing[0].getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+            throw new TaskRejectedException("full");
+        }, new InProcessPackConverter(), logService(), eventService, new PackChangeTracker(),
+            new PackMetrics(registry), new ConversionQueue(jobRepo, "test-node", 60000, 3));
+        ReflectionTestUtils.setField(service, "uploadDir", tempDir.toString());
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob saved = i.getArgument(0);
+            saved.setId(3L);
+            return saved;
+        });
+
+        assertThrows(ConversionQueueFullException.class, () -> service.submit(1L, "1.20"));
+        competing[0].join(5000);
+
+        // Not handed job 3, which no longer exists
+        assertTrue(outcome[0] instanceof ConversionQueueFullException);
+        verify(jobRepo).deleteById(3L);
+    }
+
+    @Test
+    void runConversionSkipsJobThatIsNotPending() {
+        // Already claimed by another node, or finished
+        when(jobRepo.claim(eq(2L), eq("test-node"), any(LocalDateTime.class))).thenReturn(0);
+
+        service.runConversion(2L);
+
+        verify(jobRepo, never()).findById(2L);
+        verify(jobRepo, never()).save(any(ConversionJob.class));
+    }
+
+    @Test
+    void distributedSubmitLeavesJobForQueuePoll() {
+        List<Runnable> executed = new ArrayList<>();
+        service = new ConverterService(packRepo, jobRepo, packService, executed::add,
+            new InProcessPackConverter(), logService(), eventService, new PackChangeTracker(),
+            new PackMetrics(registry), new ConversionQueue(jobRepo, "test-node", 60000, 3));
+        ReflectionTestUtils.setField(service, "uploadDir", tempDir.toString());
+        ReflectionTestUtils.setField(service, "distributed", true);
+        ReflectionTestUtils.setField(service, "maxPending", 10L);
+        ReflectionTestUtils.setField(service, "workers", 2);
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob saved = i.getArgument(0);
+            saved.setId(3L);
+            return saved;
+        });
+        when(jobRepo.countByStatus("PENDING")).thenReturn(1L);
+        when(jobRepo.lockPendingIds(2)).thenReturn(List.of(3L));
+        when(jobRepo.claim(eq(3L), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+
+        ConversionJob created = service.submit(1L, "1.20");
+
+        assertEquals("PENDING", created.getStatus());
+        // Claimed through the queue poll, not dispatched directly
+        assertEquals(1, executed.size());
+        verify(jobRepo).lockPendingIds(2);
+    }
+
+    @Test
+    void distributedSubmitRejectedWhenBacklogTooLong() {
+        ReflectionTestUtils.setField(service, "distributed", true);
+        ReflectionTestUtils.setField(service, "maxPending", 10L);
+        ReflectionTestUtils.setField(service, "retryAfterSeconds", 15L);
+        when(packRepo.findById(1L)).thenReturn(Optional.of(orig));
+        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> {
+            ConversionJob saved = i.getArgument(0);
+            saved.setId(3L);
+            return saved;
+        });
+        when(jobRepo.countByStatus("PENDING")).thenReturn(11L);
+
+        assertThrows(ConversionQueueFullException.class, () -> service.submit(1L, "1.20"));
+
+        verify(jobRepo).deleteById(3L);
+        verify(jobRepo, never()).lockPendingIds(any(Integer.class));
+    }
+
+    @Test
+    void pollQueueReleasesJobsTheExecutorRejects() {
+        service = new ConverterService(packRepo, jobRepo, packService, task -> {
+            throw new TaskRejectedException("full");
+        }, new InProcessPackConverter(), logService(), eventService, new PackChangeTracker(),
+            new PackMetrics(registry), new ConversionQueue(jobRepo, "test-node", 60000, 3));
+        ReflectionTestUtils.setField(service, "distributed", true);
+        ReflectionTestUtils.setField(service, "workers", 1);
+        when(jobRepo.lockPendingIds(1)).thenReturn(List.of(4L));
+        when(jobRepo.claim(eq(4L), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+
+        service.pollQueue();
+
+        verify(jobRepo).release(4L, "test-node");
     }
 
     @Test
     void runConversionFailure() throws Exception {
+        when(jobRepo.claim(eq(2L), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepo.finish(any(Long.class), eq("test-node"), any(), any(), any(), any(), any())).thenReturn(1);
         when(jobRepo.findById(2L)).thenReturn(Optional.of(job));
-        when(jobRepo.save(any(ConversionJob.class))).thenAnswer(i -> i.getArgument(0));
+        Path convTemp = Files.createDirectory(tempDir.resolve("tmp"));
 
-        try (MockedStatic<Main> mocked = mockStatic(Main.class)) {
+        try (MockedStatic<Files> filesMock = mockStatic(Files.class, CALLS_REAL_METHODS);
+             MockedStatic<Main> mocked = mockStatic(Main.class)) {
+            filesMock.when(() -> Files.createTempDirectory("rpcv-2-")).thenReturn(convTemp);
             mocked.when(() -> Main.main(any(String[].class))).thenThrow(new RuntimeException("fail"));
             service.runConversion(2L);
         }
 
         assertEquals("FAILED", job.getStatus());
         assertNotNull(job.getErrorMessage());
+        // Stages up to the failing converter call are kept
+        assertEquals(List.of("queued", "stage"), List.copyOf(job.getStageTimings().keySet()));
+        // The working directory does not outlive the job
+        assertFalse(Files.exists(convTemp));
+    }
+
+    @Test
+    void runConversionDropsResultAfterLosingLease() {
+        when(jobRepo.claim(eq(2L), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepo.findById(2L)).thenReturn(Optional.of(job));
+
+        try (MockedStatic<Main> mocked = mockStatic(Main.class)) {
+            mocked.when(() -> Main.main(any(String[].class))).thenThrow(new RuntimeException("fail"));
+            service.runConversion(2L);
+        }
+
+        // The reaper's outcome is not overwritten or announced
+        verify(jobRepo, never()).save(any(ConversionJob.class));
+        verify(eventService, times(1)).publish(job);
+    }
+
+    @Test
+    void resultOfRequeuedJobIsNeitherMovedNorRecorded() throws Exception {
+        when(jobRepo.claim(eq(2L), eq("test-node"), any(LocalDateTime.class))).thenReturn(1);
+        when(jobRepo.findById(2L)).thenReturn(Optional.of(job));
+        when(packService.computeDigests(any(Path.class))).thenReturn(new HashingService.Digests(1, "hash2", "sha256"));
+        Path convTemp = Files.createDirectory(tempDir.resolve("tmp"));
+
+        try (MockedStatic<Files> filesMock = mockStatic(Files.class, CALLS_REAL_METHODS);
+             MockedStatic<Main> mainMock = mockStatic(Main.class)) {
+            filesMock.when(() -> Files.createTempDirectory("rpcv-2-")).thenReturn(convTemp);
+            mainMock.when(() -> Main.main(any(String[].class))).thenAnswer(inv -> {
+                Files.write(convTemp.resolve("input_converted.zip"), new byte[]{1});
+                return null;
+            });
+            service.runConversion(2L);
+        }
+
+        verify(packRepo, never()).save(any(ResourcePack.class));
+        assertFalse(Files.exists(tempDir.resolve("1/1.20/orig_to_1.20.zip")));
+        assertFalse(Files.exists(convTemp));
+        verify(jobRepo, never()).save(any(ConversionJob.class));
+        verify(jobRepo, never()).recordResult(any(), any(), any(), any());
+    }
+
+    @Test
+    void reapedJobsAreRunAgainLocally() throws Exception {
+        List<Runnable> executed = new ArrayList<>();
+        service = new ConverterService(packRepo, jobRepo, packService, executed::add,
+            new InProcessPackConverter(), logService(), eventService, new PackChangeTracker(),
+            new PackMetrics(registry), new ConversionQueue(jobRepo, "test-node", 60000, 3));
+        ConversionJob failed = new ConversionJob();
+        failed.setId(6L);
+        failed.setResourcePack(orig);
+        failed.setTargetVersion("1.21");
+        failed.setStatus("FAILED");
+        when(jobRepo.findExpiredLeases(any(LocalDateTime.class))).thenReturn(List.of(5L, 6L));
+        when(jobRepo.requeueExpired(eq(5L), any(LocalDateTime.class), eq(3))).thenReturn(1);
+        when(jobRepo.failExpired(eq(6L), any(LocalDateTime.class), any(String.class), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(jobRepo.findById(5L)).thenReturn(Optional.of(job));
+        when(jobRepo.findById(6L)).thenReturn(Optional.of(failed));
+        // Left by the abandoned attempt, e.g. before this node restarted
+        Path orphan = Files.createDirectory(tempDir.resolve("rpcv-5-1234"));
+
+        String tmp = System.getProperty("java.io.tmpdir");
+        System.setProperty("java.io.tmpdir", tempDir.toString());
+        try {
+            service.reapExpiredLeases();
+        } finally {
+            System.setProperty("java.io.tmpdir", tmp);
+        }
+
+        assertEquals(1, executed.size());
+        assertFalse(Files.exists(orphan));
+        verify(eventService).publish(job);
+        verify(eventService).publish(failed);
+        assertEquals(1, registry.get("rph.conversion.lease.expired").tag("outcome", "requeued").counter().count());
+        assertEquals(1, registry.get("rph.conversion.lease.expired").tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void removeStaleTempDirsKeepsDirectoriesOfLiveJobs() throws Exception {
+        Path abandoned = Files.createDirectory(tempDir.resolve("rpcv-5-1234"));
+        Files.write(abandoned.resolve("input.zip"), new byte[]{1});
+        Path live = Files.createDirectory(tempDir.resolve("rpcv-6-1234"));
+        Path staging = Files.createDirectory(tempDir.resolve("rpcv-stage-1234"));
+        ConversionJob running = new ConversionJob();
+        running.setStatus("IN_PROGRESS");
+        running.setHeartbeatAt(LocalDateTime.now());
+        when(jobRepo.findById(5L)).thenReturn(Optional.empty());
+        when(jobRepo.findById(6L)).thenReturn(Optional.of(running));
+
+        String tmp = System.getProperty("java.io.tmpdir");
+        System.setProperty("java.io.tmpdir", tempDir.toString());
+        try {
+            service.removeStaleTempDirs();
+        } finally {
+            System.setProperty("java.io.tmpdir", tmp);
+        }
+
+        assertFalse(Files.exists(abandoned));
+        assertTrue(Files.exists(live));
+        // Too recent to be a leftover
+        assertTrue(Files.exists(staging));
     }
 }
@@ -0,0 +1,108 @@
+package com.zacklack.zacklack.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HashingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static byte[] content(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 17);
+        }
+        return data;
+    }
+
+    private static String expected(String algorithm, byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(data));
+    }
+
+    @Test
+    void hashComputesBothDigestsInOneRead() throws Exception {
+        // Larger than the buffer so several reads are needed
+        byte[] data = content(3 * HashingService.BUFFER_SIZE + 123);
+        Path file = Files.write(tempDir.resolve("pack.zip"), data);
+
+        HashingService.Digests digests = new HashingService(1).hash(file);
+
+        assertEquals(data.length, digests.size());
+        assertEquals(expected("SHA-1", data), digests.sha1());
+        assertEquals(expected("SHA-256", data), digests.sha256());
+    }
+
+    @Test
+    void copyWritesAndHashes() throws Exception {
+        byte[] data = content(100_000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        HashingService.Digests digests = new HashingService(1).copy(new ByteArrayInputStream(data), out);
+
+        assertArrayEquals(data, out.toByteArray());
+        assertEquals(expected("SHA-1", data), digests.sha1());
+        assertEquals(expected("SHA-256", data), digests.sha256());
+    }
+
+    @Test
+    void failedCopyDoesNotLeakIntoNextHash() throws Exception {
+        HashingService hashing = new HashingService(1);
+        InputStream broken = new InputStream() {
+            private int left = 10;
+
+            @Override
+            public int read() throws IOException {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (left == 0) {
+                    throw new IOException("connection reset");
+                }
+                int n = Math.min(len, left);
+                left -= n;
+                return n;
+            }
+        };
+        assertThrows(IOException.class, () -> hashing.copy(broken, new ByteArrayOutputStream()));
+        assertEquals(1, hashing.pooled());
+
+        byte[] data = content(10);
+        HashingService.Digests digests = hashing.copy(new ByteArrayInputStream(data), new ByteArrayOutputStream());
+        assertEquals(10, digests.size());
+        assertEquals(expected("SHA-1", data), digests.sha1());
+        assertEquals(1, hashing.pooled());
+    }
+
+    @Test
+    void hasherFeedsAcrossCalls() throws Exception {
+        byte[] data = content(1000);
+        HashingService.Hasher hasher = new HashingService(1).newHasher();
+        hasher.update(data, 0, 400);
+        hasher.update(data, 400, 600);
+
+        assertEquals(1000, hasher.size());
+        HashingService.Digests digests = hasher.finish();
+        assertEquals(expected("SHA-256", data), digests.sha256());
+        assertEquals(0, hasher.size());
+    }
+
+    @Test
+    void hexIsLowercase() {
+        assertEquals("00ff0a", HashingService.hex(new byte[] { 0, (byte) 0xff, 10 }));
+    }
+}
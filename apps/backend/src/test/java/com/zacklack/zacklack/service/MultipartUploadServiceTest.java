@@ -0,0 +1,93 @@
+package com.zacklack.zacklack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+@ExtendWith(MockitoExtension.class)
+class MultipartUploadServiceTest {
+
+    @Mock
+    ResourcePackService packService;
+
+    MultipartUploadService service;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() {
+        service = new MultipartUploadService(packService);
+    }
+
+    private static MockHttpServletRequest multipart(MockPart... parts) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/resourcepacks");
+        request.setContentType("multipart/form-data; boundary=test");
+        for (MockPart part : parts) {
+            request.addPart(part);
+        }
+        return request;
+    }
+
+    @Test
+    void filePartIsStored() throws Exception {
+        MockPart file = new MockPart("file", "p.zip", new byte[100]);
+        MockHttpServletRequest request = multipart(new MockPart("note", "hello".getBytes()), file);
+        ResourcePack pack = new ResourcePack();
+        when(packService.storePart(same(file), same(request))).thenReturn(pack);
+
+        assertSame(pack, service.receive(request));
+    }
+
+    @Test
+    void missingFilePartIsRejected() throws Exception {
+        MockHttpServletRequest request = multipart(new MockPart("other", "p.zip", new byte[10]));
+
+        assertThrows(IllegalArgumentException.class, () -> service.receive(request));
+        verify(packService, never()).storePart(any(), any());
+    }
+
+    @Test
+    void formFieldNamedFileIsRejected() throws Exception {
+        MockHttpServletRequest request = multipart(new MockPart("file", "not a pack".getBytes()));
+
+        assertThrows(IllegalArgumentException.class, () -> service.receive(request));
+        verify(packService, never()).storePart(any(), any());
+    }
+
+    @Test
+    void exceededLimitIsReportedAsTooLarge() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getPart("file")).thenThrow(new IllegalStateException(
+            new IOException("The field file exceeds its maximum permitted size of 10 bytes.")));
+
+        assertThrows(MaxUploadSizeExceededException.class, () -> service.receive(request));
+    }
+
+    @Test
+    void otherContainerErrorsPassThrough() throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getPart("file")).thenThrow(
+            new IllegalStateException("Unable to process parts as no multi-part configuration has been provided"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> service.receive(request));
+        assertEquals(null, e.getCause());
+    }
+}
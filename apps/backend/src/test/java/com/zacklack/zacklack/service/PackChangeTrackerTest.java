@@ -0,0 +1,80 @@
+package com.zacklack.zacklack.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zacklack.zacklack.repository.ResourcePackRepository;
+
+class PackChangeTrackerTest {
+
+    @Test
+    void changeBumpsVersionAndEtag() {
+        PackChangeTracker tracker = new PackChangeTracker();
+        String before = tracker.etag();
+        assertEquals(0, tracker.version());
+
+        tracker.changed();
+
+        assertEquals(1, tracker.version());
+        assertNotEquals(before, tracker.etag());
+        assertTrue(tracker.etag().startsWith("\""));
+        assertFalse(tracker.lastModified().isAfter(java.time.Instant.now()));
+        assertEquals(0, tracker.lastModified().getNano());
+    }
+
+    @Test
+    void sharedEtagFollowsTheTableOnEveryNode() {
+        ResourcePackRepository packs = mock(ResourcePackRepository.class);
+        when(packs.count()).thenReturn(2L);
+        when(packs.maxId()).thenReturn(7L);
+        PackChangeTracker nodeA = new PackChangeTracker(packs, true);
+        PackChangeTracker nodeB = new PackChangeTracker(packs, true);
+
+        String before = nodeA.etag();
+        assertEquals(before, nodeB.etag());
+        // Cached between refreshes
+        nodeA.etag();
+        verify(packs, times(2)).count();
+
+        // A change on node A is visible to node B's clients as well
+        when(packs.count()).thenReturn(3L);
+        when(packs.maxId()).thenReturn(8L);
+        nodeA.changed();
+        assertNotEquals(before, nodeA.etag());
+        ReflectionTestUtils.setField(nodeB, "checkedAt", Long.MIN_VALUE);
+        assertEquals(nodeA.etag(), nodeB.etag());
+    }
+
+    @Test
+    void requestsDuringSharedRefreshServeTheCachedEtag() {
+        ResourcePackRepository packs = mock(ResourcePackRepository.class);
+        when(packs.count()).thenReturn(2L);
+        when(packs.maxId()).thenReturn(7L);
+        PackChangeTracker tracker = new PackChangeTracker(packs, true);
+        String cached = tracker.etag();
+
+        AtomicReference<String> meanwhile = new AtomicReference<>();
+        when(packs.count()).thenAnswer(inv -> {
+            Thread other = Thread.ofVirtual().start(() -> meanwhile.set(tracker.etag()));
+            other.join(5000);
+            return 3L;
+        });
+        tracker.changed();
+
+        assertNotEquals(cached, tracker.etag());
+        assertEquals(cached, meanwhile.get());
+        // The first read and one refresh; the concurrent request did not query
+        verify(packs, times(2)).count();
+    }
+}
@@ -0,0 +1,75 @@
+package com.zacklack.zacklack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import com.zacklack.zacklack.repository.ResourcePackRepository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class PackDistributionIndexTest {
+
+    @Mock
+    ResourcePackRepository repo;
+
+    PackDistributionIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() {
+        index = new PackDistributionIndex(repo);
+        ReflectionTestUtils.setField(index, "ttlSeconds", 300L);
+    }
+
+    private static ResourcePack pack(Long id, String hash) {
+        ResourcePack rp = new ResourcePack("p.zip", "s.zip", 1L, hash, LocalDateTime.now());
+        ReflectionTestUtils.setField(rp, "id", id);
+        return rp;
+    }
+
+    @Test
+    void missLoadsOnceThenServesFromMemory() {
+        when(repo.findById(1L)).thenReturn(Optional.of(pack(1L, "abc")));
+
+        assertEquals("abc", index.lookup(1L).orElseThrow().fileHash());
+        assertEquals("s.zip", index.lookup(1L).orElseThrow().storageFilename());
+
+        verify(repo, times(1)).findById(1L);
+    }
+
+    @Test
+    void putWarmsTheIndex() {
+        index.put(pack(2L, "def"));
+
+        assertEquals("def", index.lookup(2L).orElseThrow().fileHash());
+        verify(repo, never()).findById(2L);
+    }
+
+    @Test
+    void unknownPackIsEmpty() {
+        when(repo.findById(3L)).thenReturn(Optional.empty());
+        assertTrue(index.lookup(3L).isEmpty());
+    }
+
+    @Test
+    void invalidateAllForcesReload() {
+        index.put(pack(4L, "abc"));
+        index.invalidateAll();
+        when(repo.findById(4L)).thenReturn(Optional.empty());
+
+        assertTrue(index.lookup(4L).isEmpty());
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.zacklack.zacklack.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zacklack.zacklack.model.ResourcePack;
+
+class PackDownloadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    PackDownloadService service;
+    ResourcePack pack;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() throws Exception {
+        service = new PackDownloadService();
+        ReflectionTestUtils.setField(service, "uploadDir", tempDir.toString());
+        ReflectionTestUtils.setField(service, "cacheMaxAgeSeconds", 60L);
+        ReflectionTestUtils.setField(service, "sendfileEnabled", true);
+        Files.write(tempDir.resolve("stored.zip"), new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+        pack = new ResourcePack("my pack.zip", "stored.zip", 10L, "abc123", LocalDateTime.now());
+    }
+
+    private MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/api/resourcepacks/1/download");
+    }
+
+    @Test
+    void fullDownloadWithValidators() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(pack, get(), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("\"abc123\"", response.getHeader("ETag"));
+        assertEquals("public, max-age=60, immutable", response.getHeader("Cache-Control"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals(10, response.getContentLength());
+        assertTrue(response.getHeader("Content-Disposition").startsWith("attachment;"));
+        assertTrue(response.getHeader("Content-Disposition").contains("my%20pack.zip"));
+        assertEquals(10, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void singleRangeReturnsPartialContent() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=2-4");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(pack, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeader("Content-Range"));
+        assertArrayEquals(new byte[] { 2, 3, 4 }, response.getContentAsByteArray());
+    }
+
+    @Test
+    void staleIfRangeFallsBackToFullBody() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=-3");
+        request.addHeader("If-Range", "\"other\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(pack, request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void unsatisfiableRange() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("Range", "bytes=50-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(pack, request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void matchingEtagReturnsNotModified() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader("If-None-Match", "\"zzz\", \"abc123\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(pack, request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void usesSendfileWhenConnectorSupportsIt() throws Exception {
+        MockHttpServletRequest request = get();
+        request.setAttribute(PackDownloadService.SENDFILE_SUPPORT, Boolean.TRUE);
+        request.addHeader("Range", "bytes=5-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(pack, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(tempDir.resolve("stored.zip").toAbsolutePath().toString(),
+            request.getAttribute(PackDownloadService.SENDFILE_FILENAME));
+        assertEquals(5L, request.getAttribute(PackDownloadService.SENDFILE_START));
+        assertEquals(10L, request.getAttribute(PackDownloadService.SENDFILE_END));
+    }
+
+    @Test
+    void missingFileIsNotFound() throws Exception {
+        Files.delete(tempDir.resolve("stored.zip"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.send(pack, get(), response);
+        assertEquals(404, response.getStatus());
+    }
+}
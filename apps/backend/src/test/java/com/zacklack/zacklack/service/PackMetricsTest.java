@@ -0,0 +1,47 @@
+package com.zacklack.zacklack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class PackMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    PackMetrics metrics = new PackMetrics(registry);
+
+    @Test
+    void conversionTimersAreTaggedPerVersionPair() {
+        metrics.conversionFinished("1.19", "1.20", "COMPLETED", TimeUnit.SECONDS.toNanos(2));
+        metrics.conversionFinished("1.19", "1.20", "COMPLETED", TimeUnit.SECONDS.toNanos(4));
+        metrics.conversionFinished(null, "1.21", "FAILED", 1);
+
+        Timer pair = registry.get(PackMetrics.CONVERSION_DURATION)
+            .tags("source", "1.19", "target", "1.20", "status", "COMPLETED").timer();
+        assertEquals(2, pair.count());
+        assertEquals(6.0, pair.totalTime(TimeUnit.SECONDS), 0.001);
+        assertEquals(1, registry.get(PackMetrics.CONVERSION_DURATION).tag("source", "unknown").timer().count());
+        assertTrue(pair.takeSnapshot().percentileValues().length > 0);
+    }
+
+    @Test
+    void unknownVersionsShareOneTag() {
+        metrics.conversionFinished("1.19", "not-a-version-1", "FAILED", 1);
+        metrics.conversionFinished("1.19", "not-a-version-2", "FAILED", 1);
+
+        Timer other = registry.get(PackMetrics.CONVERSION_DURATION).tag("target", "other").timer();
+        assertEquals(2, other.count());
+        assertEquals(1, registry.get(PackMetrics.CONVERSION_DURATION).timers().size());
+    }
+
+    @Test
+    void hashingRecordsBytesAndTime() {
+        metrics.hashed(1024, 1_000_000);
+
+        assertEquals(1024.0, registry.get(PackMetrics.HASH_BYTES).summary().totalAmount());
+        assertEquals(1, registry.get(PackMetrics.HASH_DURATION).timer().count());
+    }
+}
@@ -0,0 +1,161 @@
+package com.zacklack.zacklack.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.zacklack.zacklack.dto.PackFilter;
+import com.zacklack.zacklack.dto.PackPage;
+import com.zacklack.zacklack.dto.PackSummary;
+import com.zacklack.zacklack.model.ResourcePack;
+import com.zacklack.zacklack.repository.ResourcePackRepository;
+
+/**
+ * Keyset pagination and statement counts against an in-memory database; the
+ * schema comes from the entities because the Flyway scripts are
+ * MySQL-specific.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ResourcePackServiceListingTest {
+
+    @Autowired
+    ResourcePackRepository repository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    ResourcePackService service;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() {
+        service = new ResourcePackService(repository, new PackChangeTracker(), new PackDistributionIndex(repository),
+            new HashingService(1), new PackMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "defaultLimit", 3);
+        ReflectionTestUtils.setField(service, "maxLimit", 4);
+
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < 7; i++) {
+            // Pairs of packs share an upload time to exercise the id tiebreak
+            ResourcePack rp = new ResourcePack(
+                (i % 2 == 0 ? "alpha_" : "beta%") + i + ".zip",
+                "stored" + i + ".zip",
+                1L,
+                "hash" + i,
+                base.plusMinutes(i / 2)
+            );
+            rp.setPackFormat(i < 4 ? 15 : 34);
+            repository.save(rp);
+        }
+        ResourcePack converted = new ResourcePack("alpha_c.zip", "c.zip", 1L, "hc", base.plusHours(1));
+        converted.setConverted(true);
+        repository.save(converted);
+    }
+
+    /** Give every original {@code perPack} conversions, then start counting. */
+    private Statistics addConversions(int perPack) {
+        for (ResourcePack orig : repository.findByConvertedFalse()) {
+            for (int v = 0; v < perPack; v++) {
+                ResourcePack conv = new ResourcePack(orig.getOriginalFilename(), "conv" + orig.getId() + "_" + v + ".zip",
+                    1L, "hconv", orig.getUploadDate());
+                conv.setConverted(true);
+                conv.setTargetVersion("1.2" + v);
+                conv.setOriginalPack(orig);
+                repository.save(conv);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics stats = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+
+    @Test
+    void listingUsesTwoStatementsPerPage() {
+        Statistics stats = addConversions(3);
+
+        PackPage<PackSummary> page = service.findOriginals(PackFilter.none(), null, 4);
+
+        assertEquals(4, page.items().size());
+        page.items().forEach(p -> assertEquals(3, p.conversions().size()));
+        // Page query + one batched conversions query, independent of page size
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void singlePackAndConversionsUseFixedStatements() {
+        Long id = repository.findByConvertedFalse().get(0).getId();
+        Statistics stats = addConversions(5);
+
+        PackSummary summary = service.findSummary(id);
+        assertEquals(5, summary.conversions().size());
+        assertEquals(2, stats.getPrepareStatementCount());
+
+        stats.clear();
+        assertEquals(5, service.findConversionSummaries(id).size());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    private List<String> names(PackPage<PackSummary> page) {
+        return page.items().stream().map(PackSummary::originalFilename).toList();
+    }
+
+    @Test
+    void pagesThroughOriginalsNewestFirst() {
+        List<String> seen = new ArrayList<>();
+        PackPage<PackSummary> page = service.findOriginals(PackFilter.none(), null, null);
+        int pages = 1;
+        seen.addAll(names(page));
+        while (page.nextCursor() != null) {
+            page = service.findOriginals(PackFilter.none(), page.nextCursor(), null);
+            seen.addAll(names(page));
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertEquals(List.of(
+            "alpha_6.zip", "beta%5.zip", "alpha_4.zip", "beta%3.zip",
+            "alpha_2.zip", "beta%1.zip", "alpha_0.zip"
+        ), seen);
+    }
+
+    @Test
+    void limitIsCapped() {
+        assertEquals(4, service.findOriginals(PackFilter.none(), null, 100).items().size());
+    }
+
+    @Test
+    void filtersByFormatAndNamePrefix() {
+        PackPage<PackSummary> page = service.findOriginals(new PackFilter(15, null, "alpha"), null, 10);
+        assertEquals(List.of("alpha_2.zip", "alpha_0.zip"), names(page));
+        assertNull(page.nextCursor());
+
+        // LIKE wildcards in the prefix are matched literally
+        assertEquals(0, service.findOriginals(new PackFilter(null, null, "b%t"), null, 10).items().size());
+        assertEquals(3, service.findOriginals(new PackFilter(null, null, "beta%"), null, 10).items().size());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+            () -> service.findOriginals(PackFilter.none(), "not-a-cursor", null));
+    }
+}
@@ -1,11 +1,14 @@
 package com.zacklack.zacklack.service;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -15,16 +18,20 @@ import com.zacklack.zacklack.exception.InvalidPackException;
 import com.zacklack.zacklack.model.ResourcePack;
 import com.zacklack.zacklack.repository.ResourcePackRepository;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.Part;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -43,12 +50,15 @@ class ResourcePackServiceTest {
     @Mock
     ResourcePackRepository repo;
 
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
     ResourcePackService service;
 
     @BeforeEach
     @SuppressWarnings("unused")
     void setup() throws Exception {
-        service = new ResourcePackService(repo);
+        service = new ResourcePackService(repo, new PackChangeTracker(), new PackDistributionIndex(repo),
+            new HashingService(2), new PackMetrics(registry));
         ReflectionTestUtils.setField(service, "uploadDir", tempDir.toString());
         service.init();
     }
@@ -82,6 +92,76 @@ class ResourcePackServiceTest {
         assertTrue(Files.exists(stored));
         String hash = service.computeHash(stored);
         assertEquals(hash, rp.getFileHash());
+        assertEquals(1, registry.get("rph.upload.duration").tags("kind", "stream", "outcome", "stored").timer().count());
+        assertEquals(Files.size(stored), registry.get("rph.upload.bytes").summary().totalAmount());
+        assertEquals(Files.size(stored), registry.get("rph.hash.bytes").summary().totalAmount());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(stored))),
+            rp.getSha256());
+    }
+
+    @Test
+    void storeStagedLinksFileIntoUploadDir() throws Exception {
+        when(repo.save(any(ResourcePack.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        byte[] zip = createZip(true).getBytes();
+        Path staged = Files.createTempFile("staged", ".part");
+        Files.write(staged, zip);
+
+        ResourcePack rp = service.storeStaged(staged, "big.zip", service.computeDigests(staged), null);
+
+        // Deleting the staged file is up to the caller
+        assertTrue(Files.exists(staged));
+        Files.delete(staged);
+        assertTrue(rp.getStorageFilename().endsWith(".zip"));
+        assertTrue(Files.exists(tempDir.resolve(rp.getStorageFilename())));
+        assertEquals(service.computeHash(tempDir.resolve(rp.getStorageFilename())), rp.getFileHash());
+        assertEquals(Integer.valueOf(15), rp.getPackFormat());
+    }
+
+    @Test
+    void storePartWritesPartIntoUploadDir() throws Exception {
+        when(repo.save(any(ResourcePack.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        byte[] zip = createZip(true).getBytes();
+        Part part = mock(Part.class);
+        when(part.getSubmittedFileName()).thenReturn("big.zip");
+        doAnswer(inv -> Files.write(Path.of((String) inv.getArgument(0)), zip)).when(part).write(any());
+
+        ResourcePack rp = service.storePart(part, null);
+
+        Path stored = tempDir.resolve(rp.getStorageFilename());
+        assertArrayEquals(zip, Files.readAllBytes(stored));
+        assertEquals(service.computeHash(stored), rp.getFileHash());
+        assertEquals(1, registry.get("rph.upload.duration").tags("kind", "part", "outcome", "stored").timer().count());
+    }
+
+    @Test
+    void storePartRemovesFileWhenWriteFails() throws Exception {
+        Part part = mock(Part.class);
+        when(part.getSubmittedFileName()).thenReturn("big.zip");
+        doAnswer(inv -> {
+            Files.write(Path.of((String) inv.getArgument(0)), new byte[10]);
+            throw new IOException("disk full");
+        }).when(part).write(any());
+
+        assertThrows(IOException.class, () -> service.storePart(part, null));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "failed store must not leave a file behind");
+        }
+    }
+
+    @Test
+    void storeStagedKeepsStagedFileWhenSaveFails() throws Exception {
+        when(repo.save(any(ResourcePack.class))).thenThrow(new IllegalStateException("db down"));
+        Path staged = Files.createTempFile("staged", ".part");
+        Files.write(staged, createZip(true).getBytes());
+
+        assertThrows(IllegalStateException.class,
+            () -> service.storeStaged(staged, "big.zip", service.computeDigests(staged), null));
+
+        assertTrue(Files.exists(staged));
+        Files.delete(staged);
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "failed store must not leave a file behind");
+        }
     }
 
     @Test
@@ -91,6 +171,44 @@ class ResourcePackServiceTest {
         when(req.getHeader("User-Agent")).thenReturn("JUnit");
         InvalidPackException thrown = assertThrows(InvalidPackException.class, () -> service.store(createZip(false), req));
         assertNotNull(thrown.getMessage());
+        assertEquals(1.0, registry.get("rph.upload.validation.failures").counter().count());
+        assertEquals(1, registry.get("rph.upload.duration").tag("outcome", "invalid").timer().count());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "rejected upload must not leave a file behind");
+        }
+    }
+
+    @Test
+    void storeNonZipThrowsInvalidPack() {
+        MockMultipartFile junk = new MockMultipartFile("file", "junk.zip", "application/zip",
+            "not a zip".getBytes(StandardCharsets.UTF_8));
+        assertThrows(InvalidPackException.class, () -> service.store(junk, null));
+    }
+
+    @Test
+    void storeReadsMetaAfterLargeEntries() throws Exception {
+        when(repo.save(any(ResourcePack.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            byte[] texture = new byte[64 * 1024];
+            for (int i = 0; i < 20; i++) {
+                zos.putNextEntry(new ZipEntry("assets/minecraft/textures/t" + i + ".png"));
+                zos.write(texture);
+                zos.closeEntry();
+            }
+            zos.putNextEntry(new ZipEntry("pack.mcmeta"));
+            zos.write("{\"pack\":{\"pack_format\":34}}".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+        byte[] bytes = bos.toByteArray();
+
+        ResourcePack rp = service.store(new MockMultipartFile("file", "big.zip", "application/zip", bytes), null);
+
+        assertEquals(34, rp.getPackFormat());
+        assertEquals(bytes.length, rp.getSize());
+        Path stored = tempDir.resolve(rp.getStorageFilename());
+        assertEquals(bytes.length, Files.size(stored));
+        assertEquals(service.computeHash(stored), rp.getFileHash());
     }
 
     @Test
@@ -107,6 +225,40 @@ class ResourcePackServiceTest {
         verify(repo).deleteById(1L);
     }
 
+    @Test
+    void contentAddressedStoreSharesBlob() throws Exception {
+        ReflectionTestUtils.setField(service, "contentAddressed", true);
+        when(repo.save(any(ResourcePack.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        MockMultipartFile upload = createZip(true);
+
+        when(repo.findFirstByFileHash(any())).thenReturn(Optional.empty());
+        ResourcePack first = service.store(upload, null);
+        assertEquals(first.getFileHash() + ".zip", first.getStorageFilename());
+
+        when(repo.findFirstByFileHash(first.getFileHash())).thenReturn(Optional.of(first));
+        ResourcePack second = service.store(upload, null);
+
+        assertEquals(first.getStorageFilename(), second.getStorageFilename());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void deleteKeepsFileStillReferenced() {
+        ResourcePack rp = new ResourcePack("a.zip", "shared.zip", 1L, "hash", LocalDateTime.now());
+        ReflectionTestUtils.setField(rp, "id", 1L);
+        Path file = tempDir.resolve("shared.zip");
+        assertDoesNotThrow(() -> Files.writeString(file, "data"));
+        when(repo.findById(1L)).thenReturn(Optional.of(rp));
+        when(repo.countByStorageFilename("shared.zip")).thenReturn(1L);
+
+        service.delete(1L);
+
+        assertTrue(Files.exists(file));
+        verify(repo).deleteById(1L);
+    }
+
     @Test
     void findMethodsDelegateToRepository() {
         when(repo.findAll()).thenReturn(List.of());
@@ -0,0 +1,37 @@
+package com.zacklack.zacklack.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StagedInputTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void jobsShareOneStagedCopyUntilLastRelease() throws Exception {
+        Path source = tempDir.resolve("stored.zip");
+        Files.write(source, new byte[] { 1, 2, 3 });
+        Path jobA = Files.createDirectory(tempDir.resolve("a"));
+        Path jobB = Files.createDirectory(tempDir.resolve("b"));
+
+        StagedInput input = new StagedInput(source, 2);
+        Path a = input.placeInto(jobA, "pack.zip");
+        Path b = input.placeInto(jobB, "pack.zip");
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(a));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(b));
+        assertFalse(Files.isSameFile(source, a));
+
+        input.release();
+        input.release();
+        // Job copies outlive the staging directory
+        assertTrue(Files.exists(a));
+        assertTrue(Files.exists(b));
+    }
+}
@@ -0,0 +1,139 @@
+package com.zacklack.zacklack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.zacklack.zacklack.model.ResourcePack;
+import com.zacklack.zacklack.repository.ResourcePackRepository;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Concurrent throughput of {@link ResourcePackService#store} when called
+ * from a fixed pool of 200 platform threads versus one virtual thread per
+ * call. Bodies arrive in slow chunks and every save waits a few
+ * milliseconds like a database round trip, so the calls spend most of
+ * their time blocked.
+ * <p>
+ * This measures the service on two executors only. No HTTP request is
+ * made, so Tomcat's connector and {@code spring.threads.virtual.enabled}
+ * play no part; {@code ResourcePackLoadTest} drives the running server.
+ * <p>
+ * Not part of the normal build; run with
+ * {@code mvn test -Dtest=StoreExecutorThroughputTest -Dthroughput=true}.
+ */
+@EnabledIfSystemProperty(named = "throughput", matches = "true")
+class StoreExecutorThroughputTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        StoreExecutorThroughputTest.class
+    );
+
+    private static final int UPLOADS = 1000;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int CHUNK = 4 * 1024;
+    private static final long CHUNK_DELAY_MS = 60;
+    private static final long SAVE_DELAY_MS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    ResourcePackService service;
+
+    byte[] pack;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() throws Exception {
+        // stubOnly: no invocation recording, which would serialise the threads
+        ResourcePackRepository repo = mock(ResourcePackRepository.class, withSettings().stubOnly());
+        when(repo.save(any(ResourcePack.class))).thenAnswer(inv -> {
+            Thread.sleep(SAVE_DELAY_MS);
+            return inv.getArgument(0);
+        });
+        service = new ResourcePackService(repo, new PackChangeTracker(), new PackDistributionIndex(repo),
+            new HashingService(16), new PackMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "uploadDir", tempDir.toString());
+        service.init();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bos)) {
+            zos.putNextEntry(new ZipEntry("pack.mcmeta"));
+            zos.write("{\"pack\":{\"pack_format\":15}}".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+            zos.putNextEntry(new ZipEntry("assets/texture.png"));
+            byte[] noise = new byte[64 * 1024];
+            new Random(1).nextBytes(noise);
+            zos.write(noise);
+            zos.closeEntry();
+        }
+        pack = bos.toByteArray();
+    }
+
+    /** Delivers the pack in small chunks with a pause, like a slow client. */
+    private InputStream slowClient() {
+        return new FilterInputStream(new java.io.ByteArrayInputStream(pack)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                try {
+                    Thread.sleep(CHUNK_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                return super.read(b, off, Math.min(len, CHUNK));
+            }
+        };
+    }
+
+    private double uploadsPerSecond(ExecutorService executor) throws Exception {
+        long start = System.nanoTime();
+        List<Future<ResourcePack>> results = new ArrayList<>();
+        for (int i = 0; i < UPLOADS; i++) {
+            results.add(executor.submit(() -> service.store(slowClient(), "p.zip", null)));
+        }
+        for (Future<ResourcePack> result : results) {
+            assertEquals(Integer.valueOf(15), result.get().getPackFormat());
+        }
+        executor.shutdown();
+        return UPLOADS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    @Test
+    void virtualThreadsOutrunABoundedPool() throws Exception {
+        double platform = uploadsPerSecond(Executors.newFixedThreadPool(PLATFORM_THREADS));
+        double virtual = uploadsPerSecond(Executors.newVirtualThreadPerTaskExecutor());
+        logger.info(
+            "{} stores of {} KB: platform({} threads) {}/s, virtual {}/s (x{})",
+            UPLOADS, pack.length / 1024, PLATFORM_THREADS, Math.round(platform),
+            Math.round(virtual), String.format("%.1f", virtual / platform));
+        // Five times more calls than pooled threads, each blocked for most
+        // of its run: the pool has to work through them in waves
+        assertTrue(virtual > platform,
+            "virtual " + virtual + "/s should beat platform " + platform + "/s");
+    }
+}
@@ -0,0 +1,73 @@
+package com.zacklack.zacklack.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class WorkerPoolPackConverterTest {
+    @TempDir
+    Path tempDir;
+
+    WorkerPoolPackConverter pool;
+
+    @BeforeEach
+    @SuppressWarnings("unused")
+    void setup() throws Exception {
+        pool = new WorkerPoolPackConverter();
+        ReflectionTestUtils.setField(pool, "poolSize", 1);
+        ReflectionTestUtils.setField(pool, "maxHeap", "256m");
+        ReflectionTestUtils.setField(pool, "maxJobs", 1);
+        ReflectionTestUtils.setField(pool, "timeoutSeconds", 120L);
+        ReflectionTestUtils.setField(pool, "classpath", "");
+        pool.start();
+    }
+
+    @AfterEach
+    @SuppressWarnings("unused")
+    void teardown() {
+        pool.stop();
+    }
+
+    private Path stage(String name) throws IOException {
+        Path dir = Files.createDirectory(tempDir.resolve(name));
+        Path input = dir.resolve("input.zip");
+        try (var zos = new ZipOutputStream(Files.newOutputStream(input))) {
+            zos.putNextEntry(new ZipEntry("pack.mcmeta"));
+            zos.write("{\"pack\":{\"pack_format\":9,\"description\":\"t\"}}".getBytes(StandardCharsets.UTF_8));
+            zos.closeEntry();
+        }
+        return input;
+    }
+
+    @Test
+    void convertsInWorkerAndRecyclesIt() throws Exception {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Path out = pool.convert(stage("a"), "1.19", "1.20", log);
+        assertTrue(Files.exists(out));
+        assertTrue(log.size() > 0, "converter output should be forwarded");
+
+        // max-jobs=1: the second job runs on a replacement worker
+        Path out2 = pool.convert(stage("b"), "1.19", "1.20", new ByteArrayOutputStream());
+        assertTrue(Files.exists(out2));
+    }
+
+    @Test
+    void missingInputFailsJobButNotPool() throws Exception {
+        Path missing = Files.createDirectory(tempDir.resolve("empty")).resolve("none.zip");
+        assertThrows(IOException.class,
+            () -> pool.convert(missing, "1.19", "1.20", new ByteArrayOutputStream()));
+        assertTrue(Files.exists(pool.convert(stage("c"), "1.19", "1.20", new ByteArrayOutputStream())));
+    }
+}
@@ -0,0 +1,83 @@
+package com.zacklack.zacklack.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+class ConsoleCaptureTest {
+
+    @Test
+    void concurrentCapturesStaySeparate() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch bothCapturing = new CountDownLatch(2);
+        try {
+            Future<String> a = pool.submit(() -> captureLines("A", bothCapturing));
+            Future<String> b = pool.submit(() -> captureLines("B", bothCapturing));
+            String logA = a.get();
+            String logB = b.get();
+            assertTrue(logA.contains("A-99"));
+            assertFalse(logA.contains("B-"));
+            assertTrue(logB.contains("B-99"));
+            assertFalse(logB.contains("A-"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void closingStopsCapture() {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (ConsoleCapture.Capture capture = ConsoleCapture.capture(sink)) {
+            System.out.println("inside");
+        }
+        System.out.println("outside");
+        String log = sink.toString(StandardCharsets.UTF_8);
+        assertTrue(log.contains("inside"));
+        assertFalse(log.contains("outside"));
+    }
+
+    @Test
+    void capturedThreadsDoNotWaitOnTheSharedStream() throws Exception {
+        ConsoleCapture.install();
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> log;
+            // Holding the global stream's monitor must not stall a capture
+            synchronized (System.out) {
+                log = pool.submit(() -> {
+                    ByteArrayOutputStream sink = new ByteArrayOutputStream();
+                    try (ConsoleCapture.Capture capture = ConsoleCapture.capture(sink)) {
+                        System.out.println("unblocked");
+                        System.out.printf("%s%n", "formatted");
+                    }
+                    return sink.toString(StandardCharsets.UTF_8);
+                });
+                String text = log.get(5, TimeUnit.SECONDS);
+                assertTrue(text.contains("unblocked"));
+                assertTrue(text.contains("formatted"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static String captureLines(String prefix, CountDownLatch bothCapturing) throws Exception {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (ConsoleCapture.Capture capture = ConsoleCapture.capture(sink)) {
+            bothCapturing.countDown();
+            bothCapturing.await();
+            for (int i = 0; i < 100; i++) {
+                System.out.println(prefix + "-" + i);
+                System.err.println(prefix + "-err-" + i);
+            }
+        }
+        return sink.toString(StandardCharsets.UTF_8);
+    }
+}
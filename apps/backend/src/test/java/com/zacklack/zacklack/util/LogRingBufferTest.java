@@ -0,0 +1,56 @@
+package com.zacklack.zacklack.util;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class LogRingBufferTest {
+
+    private static void write(LogRingBuffer buffer, String text) throws Exception {
+        OutputStream out = buffer.outputStream();
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void splitsLinesAndKeepsPartialUntilFinished() throws Exception {
+        LogRingBuffer buffer = new LogRingBuffer(10, 100);
+        write(buffer, "one\r\ntwo\nthr");
+        LogRingBuffer.Slice slice = buffer.since(0);
+        assertEquals(List.of("one", "two"), slice.lines());
+        assertEquals(2, slice.next());
+
+        write(buffer, "ee");
+        buffer.finish();
+        assertTrue(buffer.isFinished());
+        assertEquals(List.of("three"), buffer.since(slice.next()).lines());
+    }
+
+    @Test
+    void dropsOldestLinesWhenFull() throws Exception {
+        LogRingBuffer buffer = new LogRingBuffer(3, 100);
+        for (int i = 0; i < 10; i++) {
+            write(buffer, "line-" + i + "\n");
+        }
+        LogRingBuffer.Slice slice = buffer.since(2);
+        assertEquals(List.of("line-7", "line-8", "line-9"), slice.lines());
+        assertEquals(5, slice.dropped());
+        assertEquals(10, slice.next());
+        assertTrue(buffer.text().startsWith("[... 7 earlier lines dropped ...]\n"));
+        assertTrue(buffer.text().endsWith("line-9\n"));
+    }
+
+    @Test
+    void truncatesLongLines() throws Exception {
+        LogRingBuffer buffer = new LogRingBuffer(3, 5);
+        write(buffer, "x".repeat(10_000) + "\nok\n");
+        List<String> lines = buffer.since(0).lines();
+        assertEquals("xxxxx…", lines.get(0));
+        assertEquals("ok", lines.get(1));
+        assertFalse(buffer.isFinished());
+    }
+}
@@ -13,4 +13,15 @@ class PackFormatUtilTest {
     void unknownFormatReturnsUnknown() {
         assertEquals("Unknown", PackFormatUtil.getVersionForFormat(999));
     }
+
+    @Test
+    void knownVersionsIncludeReleasesInsideRanges() {
+        assertTrue(PackFormatUtil.isKnownVersion("1.20"));
+        assertTrue(PackFormatUtil.isKnownVersion("1.19.1"));
+        assertTrue(PackFormatUtil.isKnownVersion("1.21.8"));
+        assertTrue(PackFormatUtil.isKnownVersion("24w33a"));
+        assertFalse(PackFormatUtil.isKnownVersion("1.99"));
+        assertFalse(PackFormatUtil.isKnownVersion("latest"));
+        assertFalse(PackFormatUtil.isKnownVersion(null));
+    }
 }
@@ -0,0 +1,62 @@
+package com.zacklack.zacklack.util;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PackInspectorTest {
+    @TempDir
+    Path tempDir;
+
+    private Path zip(String meta, int textures) throws Exception {
+        Path p = tempDir.resolve("pack.zip");
+        try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(p))) {
+            for (int i = 0; i < textures; i++) {
+                zos.putNextEntry(new ZipEntry("assets/t" + i + ".png"));
+                zos.write(new byte[1024]);
+                zos.closeEntry();
+            }
+            if (meta != null) {
+                zos.putNextEntry(new ZipEntry("pack.mcmeta"));
+                zos.write(meta.getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+        return p;
+    }
+
+    @Test
+    void findsMetaAtEndOfArchive() throws Exception {
+        PackInspector.PackInfo info = PackInspector.inspect(zip("{\"pack\":{\"pack_format\":46}}", 500));
+        assertTrue(info.hasPackMeta());
+        assertEquals(46, info.packFormat());
+    }
+
+    @Test
+    void missingMeta() throws Exception {
+        PackInspector.PackInfo info = PackInspector.inspect(zip(null, 3));
+        assertFalse(info.hasPackMeta());
+        assertNull(info.packFormat());
+    }
+
+    @Test
+    void unreadableMetaStillCounts() throws Exception {
+        PackInspector.PackInfo info = PackInspector.inspect(zip("not json {", 0));
+        assertTrue(info.hasPackMeta());
+        assertNull(info.packFormat());
+    }
+
+    @Test
+    void notAZip() throws Exception {
+        Path p = tempDir.resolve("junk.zip");
+        Files.writeString(p, "definitely not a zip");
+        assertThrows(ZipException.class, () -> PackInspector.inspect(p));
+    }
+}
@@ -1,5 +1,6 @@
 "use client";
 
+import { fetchAllPacks } from "@/app/lib/packs";
 import type { FilterOptions, ResourcePack } from "@/app/types";
 import { format } from "date-fns";
 import { AnimatePresence, motion } from "framer-motion";
@@ -21,9 +22,8 @@ export function PacksManagement() {
     useEffect(() => {
         let ignore = false;
         setLoading(true);
-        fetch(`${process.env.NEXT_PUBLIC_API_URL}/api/resourcepacks`)
-            .then((res) => res.json())
-            .then((data: ResourcePack[]) => {
+        fetchAllPacks<ResourcePack>()
+            .then((data) => {
                 if (!ignore) setPacks(data);
             })
             .catch(() => {
@@ -9,6 +9,7 @@ import {
     XCircle,
 } from "lucide-react";
 import { useCallback, useState } from "react";
+import { uploadResumable } from "@/app/lib/uploads";
 
 interface UploadFile {
     file: File;
@@ -86,71 +87,24 @@ export function UploadSection() {
         );
 
         try {
-            const formData = new FormData();
-            formData.append("file", uploadFile.file);
-
-            const xhr = new XMLHttpRequest();
-
-            xhr.upload.onprogress = (event) => {
-                if (event.lengthComputable) {
-                    const progress = Math.round(
-                        (event.loaded / event.total) * 100
-                    );
-                    setFiles((prev) =>
-                        prev.map((f) =>
-                            f.id === uploadFile.id ? { ...f, progress } : f
-                        )
-                    );
-                }
-            };
-
-            xhr.onload = () => {
-                if (xhr.status === 201) {
-                    setFiles((prev) =>
-                        prev.map((f) =>
-                            f.id === uploadFile.id
-                                ? {
-                                      ...f,
-                                      status: "success" as const,
-                                      progress: 100,
-                                  }
-                                : f
-                        )
-                    );
-                } else {
-                    setFiles((prev) =>
-                        prev.map((f) =>
-                            f.id === uploadFile.id
-                                ? {
-                                      ...f,
-                                      status: "error" as const,
-                                      error: `Upload failed with status ${xhr.status}`,
-                                  }
-                                : f
-                        )
-                    );
-                }
-            };
-
-            xhr.onerror = () => {
+            await uploadResumable(uploadFile.file, (progress) =>
                 setFiles((prev) =>
                     prev.map((f) =>
-                        f.id === uploadFile.id
-                            ? {
-                                  ...f,
-                                  status: "error" as const,
-                                  error: "Network error occurred",
-                              }
-                            : f
+                        f.id === uploadFile.id ? { ...f, progress } : f
                     )
-                );
-            };
-
-            xhr.open(
-                "POST",
-                `${process.env.NEXT_PUBLIC_API_URL}/api/resourcepacks`
+                )
+            );
+            setFiles((prev) =>
+                prev.map((f) =>
+                    f.id === uploadFile.id
+                        ? {
+                              ...f,
+                              status: "success" as const,
+                              progress: 100,
+                          }
+                        : f
+                )
             );
-            xhr.send(formData);
         } catch (error) {
             setFiles((prev) =>
                 prev.map((f) =>
@@ -61,7 +61,7 @@ export function PackCard({ pack, onDelete }: PackCardProps) {
         });
     };
 
-    const downloadUrl = `${process.env.NEXT_PUBLIC_API_URL}/uploads/${pack.storageFilename}`;
+    const downloadUrl = `${process.env.NEXT_PUBLIC_API_URL}/api/resourcepacks/${pack.id}/download`;
 
     return (
         <motion.div
@@ -1,5 +1,6 @@
 "use client";
 
+import { fetchAllPacks } from "@/app/lib/packs";
 import { ApiResourcePack } from "@/app/types";
 import { motion } from "framer-motion";
 import { FileArchive, X } from "lucide-react";
@@ -12,11 +13,7 @@ function PacksList() {
     const [error, setError] = useState<string | null>(null);
 
     useEffect(() => {
-        fetch(`${process.env.NEXT_PUBLIC_API_URL}/api/resourcepacks`)
-            .then((res) => {
-                if (!res.ok) throw new Error(`HTTP ${res.status}`);
-                return res.json() as Promise<ApiResourcePack[]>;
-            })
+        fetchAllPacks<ApiResourcePack>()
             .then((data) => setPacks(data))
             .catch((err) => {
                 setError(err.message);
@@ -17,7 +17,7 @@ export function ShowDetailsButton({ pack }: ShowDetailsButtonProps) {
     const [error, setError] = useState<string | null>(null);
     const [copied, setCopied] = useState(false);
 
-    const downloadUrl = `${process.env.NEXT_PUBLIC_API_URL}/uploads/${pack.storageFilename}`;
+    const downloadUrl = `${process.env.NEXT_PUBLIC_API_URL}/api/resourcepacks/${pack.id}/download`;
 
     const fetchHash = async () => {
         setLoading(true);
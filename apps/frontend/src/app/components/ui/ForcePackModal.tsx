@@ -36,7 +36,7 @@ export function ForcePackModal({
     const { addToast } = useToast();
 
     const generateConfig = () => {
-        const baseUrl = `${apiUrl}/uploads/${pack.storageFilename}`;
+        const baseUrl = `${apiUrl}/api/resourcepacks/${pack.id}/download`;
         const baseHash = pack.fileHash ?? "";
         let cfg = "";
 
@@ -97,7 +97,7 @@ export function ForcePackModal({
 
             // Add version-specific configs for converted packs
             conversions.forEach((c) => {
-                const url = `${apiUrl}/uploads/${c.storageFilename}`;
+                const url = `${apiUrl}/api/resourcepacks/${c.id}/download`;
                 const hash = c.fileHash ?? "";
                 cfg += `
 
@@ -0,0 +1,20 @@
+/**
+ * Fetch all original packs by following the API's cursor pagination
+ * (`X-Next-Cursor` response header).
+ */
+export async function fetchAllPacks<T>(): Promise<T[]> {
+    const packs: T[] = [];
+    let cursor: string | null = null;
+    do {
+        const query: string = cursor
+            ? `?limit=500&cursor=${encodeURIComponent(cursor)}`
+            : "?limit=500";
+        const res: Response = await fetch(
+            `${process.env.NEXT_PUBLIC_API_URL}/api/resourcepacks${query}`
+        );
+        if (!res.ok) throw new Error(`HTTP ${res.status}`);
+        packs.push(...((await res.json()) as T[]));
+        cursor = res.headers.get("X-Next-Cursor");
+    } while (cursor);
+    return packs;
+}
@@ -0,0 +1,97 @@
+const CHUNK_SIZE = 5 * 1024 * 1024;
+const MAX_RETRIES = 5;
+
+class HttpError extends Error {
+    constructor(public status: number) {
+        super(`Upload failed with status ${status}`);
+    }
+}
+
+function base64(value: string): string {
+    return btoa(String.fromCharCode(...new TextEncoder().encode(value)));
+}
+
+function sendChunk(
+    url: string,
+    chunk: Blob,
+    offset: number,
+    onProgress: (sent: number) => void
+): Promise<XMLHttpRequest> {
+    return new Promise((resolve, reject) => {
+        const xhr = new XMLHttpRequest();
+        xhr.upload.onprogress = (event) => onProgress(event.loaded);
+        xhr.onload = () => resolve(xhr);
+        xhr.onerror = () => reject(new Error("Network error occurred"));
+        xhr.open("PATCH", url);
+        xhr.setRequestHeader("Tus-Resumable", "1.0.0");
+        xhr.setRequestHeader("Upload-Offset", String(offset));
+        xhr.setRequestHeader(
+            "Content-Type",
+            "application/offset+octet-stream"
+        );
+        xhr.send(chunk);
+    });
+}
+
+async function currentOffset(url: string): Promise<number> {
+    const res = await fetch(url, {
+        method: "HEAD",
+        headers: { "Tus-Resumable": "1.0.0" },
+    });
+    if (!res.ok) throw new HttpError(res.status);
+    return Number(res.headers.get("Upload-Offset"));
+}
+
+/**
+ * Upload a pack through the resumable upload API
+ * (`/api/resourcepacks/uploads`). The file is sent in chunks; after a
+ * network error the upload continues from the offset the server reports
+ * instead of starting over.
+ *
+ * @returns the stored pack as returned by the last chunk
+ */
+export async function uploadResumable<T>(
+    file: File,
+    onProgress: (percent: number) => void
+): Promise<T> {
+    const created = await fetch(
+        `${process.env.NEXT_PUBLIC_API_URL}/api/resourcepacks/uploads`,
+        {
+            method: "POST",
+            headers: {
+                "Tus-Resumable": "1.0.0",
+                "Upload-Length": String(file.size),
+                "Upload-Metadata": `filename ${base64(file.name)}`,
+            },
+        }
+    );
+    const url = created.headers.get("Location");
+    if (created.status !== 201 || !url) throw new HttpError(created.status);
+
+    let offset = 0;
+    let retries = 0;
+    for (;;) {
+        const end = Math.min(offset + CHUNK_SIZE, file.size);
+        let xhr: XMLHttpRequest;
+        try {
+            xhr = await sendChunk(url, file.slice(offset, end), offset, (sent) =>
+                onProgress(Math.round(((offset + sent) / file.size) * 100))
+            );
+        } catch (error) {
+            if (++retries > MAX_RETRIES) throw error;
+            await new Promise((r) => setTimeout(r, 1000 * retries));
+            offset = await currentOffset(url);
+            continue;
+        }
+        if (xhr.status === 201) {
+            onProgress(100);
+            return JSON.parse(xhr.responseText) as T;
+        }
+        if (xhr.status === 204 || xhr.status === 409) {
+            offset = Number(xhr.getResponseHeader("Upload-Offset"));
+            retries = 0;
+            continue;
+        }
+        throw new HttpError(xhr.status);
+    }
+}
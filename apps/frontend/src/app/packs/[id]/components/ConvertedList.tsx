@@ -24,7 +24,7 @@ export default function ConvertedList({
                             {p.targetVersion ?? ""}
                         </span>
                         <a
-                            href={`${API}/uploads/${p.storageFilename}`}
+                            href={`${API}/api/resourcepacks/${p.id}/download`}
                             className="inline-flex items-center gap-1 text-blue-600 hover:underline"
                             download
                         >
@@ -206,7 +206,7 @@ export default function PackDetailsPage() {
         );
     }
 
-    const downloadUrl = `${API}/uploads/${pack.storageFilename}`;
+    const downloadUrl = `${API}/api/resourcepacks/${pack.id}/download`;
 
     // Dynamic layout: if conversions exist or config exists, use grid layout; else, center details and make it larger
     const hasConversions = conversions && conversions.length > 0;
@@ -71,7 +71,7 @@ export default function ConvertedPackDetailsPage() {
         return <NonConvertedPackAccessError errorCode="PACK403-NONCONVERTED" />;
     }
 
-    const downloadUrl = `${API}/uploads/${pack.storageFilename}`;
+    const downloadUrl = `${API}/api/resourcepacks/${pack.id}/download`;
     const handleDelete = async () => {
         if (!window.confirm("Are you sure you want to delete this converted pack? This action cannot be undone.")) return;
         setDeleting(true);
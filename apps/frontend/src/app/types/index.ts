@@ -60,6 +60,7 @@ export interface ApiResourcePack {
     packFormat?: number;
     minecraftVersion?: string;
     fileHash?: string;
+    sha256?: string; // null for packs stored before it was recorded
 }
 
 /**
@@ -74,6 +75,8 @@ export interface ApiConversionJob {
     completedAt?: string;
     errorMessage?: string;
     consoleLog?: string;
+    /** Milliseconds per stage (queued, stage, convert, move, hash, metadata, save) */
+    stageTimings?: Record<string, number>;
 }
 
 export interface ApiResourcePack {
@@ -85,6 +88,7 @@ export interface ApiResourcePack {
     packFormat?: number;
     minecraftVersion?: string;
     fileHash?: string;
+    sha256?: string; // null for packs stored before it was recorded
 
     /** ONLY present on converted packs */
     converted?: boolean;